@@ -0,0 +1,131 @@
+package org.hygorp.bookmarketplace.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hygorp.bookmarketplace.entities.*;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.events.StockReservedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+public class BookCache {
+    private static final long MAXIMUM_SIZE = 10_000;
+    private static final Duration HIT_TTL = Duration.ofMinutes(10);
+    private static final Duration MISS_TTL = Duration.ofSeconds(30);
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<UUID, Optional<BookEntity>> books = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfter(new Expiry<UUID, Optional<BookEntity>>() {
+                @Override
+                public long expireAfterCreate(UUID id, Optional<BookEntity> book, long currentTime) {
+                    return (book.isPresent() ? HIT_TTL : MISS_TTL).toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(UUID id, Optional<BookEntity> book, long currentTime, long currentDuration) {
+                    return expireAfterCreate(id, book, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(UUID id, Optional<BookEntity> book, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+    public Optional<BookEntity> get(UUID id, Function<UUID, Optional<BookEntity>> loader) {
+        return books.get(id, loader);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void preload(long expectedGeneration, BookEntity book) {
+        if (generation.get() != expectedGeneration) {
+            return;
+        }
+
+        Optional<BookEntity> value = Optional.of(book);
+
+        if (books.asMap().putIfAbsent(book.getId(), value) == null && generation.get() != expectedGeneration) {
+            books.asMap().remove(book.getId(), value);
+        }
+    }
+
+    public void invalidate(UUID id) {
+        books.invalidate(id);
+    }
+
+    public void invalidateSoldBy(UUID sellerId) {
+        books.asMap().values().removeIf(book -> book
+                .map(BookEntity::getSeller)
+                .filter(seller -> sellerId.equals(seller.getId()))
+                .isPresent());
+    }
+
+    public void invalidateShippedFrom(UUID addressId) {
+        books.asMap().values().removeIf(book -> book
+                .map(BookEntity::getSeller)
+                .map(SellerEntity::getAddress)
+                .filter(address -> addressId.equals(address.getId()))
+                .isPresent());
+    }
+
+    public CacheStats stats() {
+        return books.stats();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        Object entity = event.entity();
+
+        generation.incrementAndGet();
+
+        if (entity instanceof BookEntity book) {
+            invalidate(book.getId());
+        } else if (entity instanceof SellerEntity seller) {
+            invalidateSoldBy(seller.getId());
+        } else if (entity instanceof AddressEntity address) {
+            invalidateShippedFrom(address.getId());
+        } else if (entity instanceof AuthorEntity || entity instanceof GenreEntity || entity instanceof PublisherEntity) {
+            books.invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        generation.incrementAndGet();
+        books.invalidateAll(event.books().stream().map(BookEntity::getId).toList());
+    }
+
+    @EventListener
+    public void onBooksDeleted(BooksDeletedEvent event) {
+        generation.incrementAndGet();
+
+        if (event.sellerId() != null) {
+            invalidateSoldBy(event.sellerId());
+        } else {
+            books.invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void onStockReserved(StockReservedEvent event) {
+        generation.incrementAndGet();
+        invalidate(event.bookId());
+    }
+}
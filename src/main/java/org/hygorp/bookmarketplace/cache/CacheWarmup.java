@@ -0,0 +1,137 @@
+package org.hygorp.bookmarketplace.cache;
+
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.entities.PublisherEntity;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Component("cacheWarmup")
+public class CacheWarmup implements ApplicationRunner, HealthIndicator {
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmup.class);
+    private static final int BOOK_CHUNK_SIZE = 100;
+
+    private final StaleWhileRevalidateCache<Pageable, Page<BookSummary>> bookPageCache;
+    private final StaleWhileRevalidateCache<Pageable, Page<GenreEntity>> genrePageCache;
+    private final StaleWhileRevalidateCache<Pageable, Page<PublisherEntity>> publisherPageCache;
+    private final BookRepository bookRepository;
+    private final BookCache bookCache;
+    private final Duration budget;
+    private final Pageable firstPage;
+    private final int frontPageBooks;
+
+    private volatile Health health = Health.outOfService().withDetail("state", "pending").build();
+
+    public CacheWarmup(
+            StaleWhileRevalidateCache<Pageable, Page<BookSummary>> bookPageCache,
+            StaleWhileRevalidateCache<Pageable, Page<GenreEntity>> genrePageCache,
+            StaleWhileRevalidateCache<Pageable, Page<PublisherEntity>> publisherPageCache,
+            BookRepository bookRepository,
+            BookCache bookCache,
+            @Value("${book-marketplace.warm-up.budget:30s}") Duration budget,
+            @Value("${spring.data.web.pageable.default-page-size:20}") int pageSize,
+            @Value("${book-marketplace.warm-up.front-page-books:500}") int frontPageBooks
+    ) {
+        this.bookPageCache = bookPageCache;
+        this.genrePageCache = genrePageCache;
+        this.publisherPageCache = publisherPageCache;
+        this.bookRepository = bookRepository;
+        this.bookCache = bookCache;
+        this.budget = budget;
+        this.firstPage = PageRequest.of(0, pageSize);
+        this.frontPageBooks = frontPageBooks;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        health = Health.outOfService().withDetail("state", "warming").build();
+        Thread.ofVirtual().name("cache-warmup").start(this::warmUp);
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        int completed = 0;
+        int failed = 0;
+        int timedOut = 0;
+
+        try {
+            for (Future<?> future : executor.invokeAll(tasks(), budget.toMillis(), TimeUnit.MILLISECONDS)) {
+                try {
+                    future.get();
+                    completed++;
+                } catch (CancellationException exception) {
+                    timedOut++;
+                } catch (ExecutionException exception) {
+                    failed++;
+                    logger.warn("Cache warm-up task failed", exception.getCause());
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException exception) {
+            failed++;
+            logger.warn("Cache warm-up could not be planned", exception);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        logger.info("Cache warm-up finished in {} ms: {} completed, {} failed, {} timed out", elapsed.toMillis(), completed, failed, timedOut);
+
+        health = Health.up()
+                .withDetail("state", "warm")
+                .withDetail("elapsed", elapsed.toMillis() + "ms")
+                .withDetail("completed", completed)
+                .withDetail("failed", failed)
+                .withDetail("timedOut", timedOut)
+                .build();
+    }
+
+    private List<Callable<Object>> tasks() {
+        List<Callable<Object>> tasks = new ArrayList<>();
+        tasks.add(() -> bookPageCache.get(firstPage));
+        tasks.add(() -> genrePageCache.get(firstPage));
+        tasks.add(() -> publisherPageCache.get(firstPage));
+
+        List<UUID> ids = bookRepository.findAllSummariesOrderByTitle(frontPageBooks).stream().map(BookSummary::id).toList();
+
+        for (int i = 0; i < ids.size(); i += BOOK_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(i, Math.min(i + BOOK_CHUNK_SIZE, ids.size()));
+            tasks.add(() -> {
+                long generation = bookCache.generation();
+                bookRepository.findAllById(chunk).forEach(book -> bookCache.preload(generation, book));
+                return chunk.size();
+            });
+        }
+
+        return tasks;
+    }
+}
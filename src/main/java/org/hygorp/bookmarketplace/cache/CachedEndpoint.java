@@ -0,0 +1,44 @@
+package org.hygorp.bookmarketplace.cache;
+
+import org.hygorp.bookmarketplace.entities.*;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public enum CachedEndpoint {
+    GENRE_PAGES(
+            List.of("/api/v1/genres/find-all", "/api/v1/genres/find-all-by-cursor"),
+            Set.of(GenreEntity.class, BookEntity.class, AuthorEntity.class, PublisherEntity.class, SellerEntity.class, AddressEntity.class)
+    ),
+    BOOK_PAGES(
+            List.of("/api/v1/books/find-all", "/api/v1/books/find-all-by-cursor"),
+            Set.of(BookEntity.class, AuthorEntity.class, SellerEntity.class)
+    ),
+    SELLER_PAGES(
+            List.of("/api/v1/sellers/find-all", "/api/v1/sellers/find-all-by-cursor", "/api/v1/sellers/*/books"),
+            Set.of(SellerEntity.class, AddressEntity.class, BookEntity.class, AuthorEntity.class)
+    );
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final List<String> patterns;
+    private final Set<Class<?>> dependencies;
+
+    CachedEndpoint(List<String> patterns, Set<Class<?>> dependencies) {
+        this.patterns = patterns;
+        this.dependencies = dependencies;
+    }
+
+    public static Optional<CachedEndpoint> match(String path) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.patterns.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path)))
+                .findFirst();
+    }
+
+    public boolean dependsOn(Class<?> entityType) {
+        return dependencies.contains(entityType);
+    }
+}
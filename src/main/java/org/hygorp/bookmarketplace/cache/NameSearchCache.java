@@ -0,0 +1,83 @@
+package org.hygorp.bookmarketplace.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+public class NameSearchCache<E> implements MeterBinder {
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final String name;
+    private final Class<E> entityType;
+    private final Function<String, List<UUID>> search;
+    private final Function<List<UUID>, List<E>> loader;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<String, List<UUID>> ids = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .recordStats()
+            .build();
+
+    public NameSearchCache(String name, Class<E> entityType, Function<String, List<UUID>> search, Function<List<UUID>, List<E>> loader) {
+        this.name = name;
+        this.entityType = entityType;
+        this.search = search;
+        this.loader = loader;
+    }
+
+    public Set<E> find(String term) {
+        String key = normalize(term);
+        List<UUID> matches = ids.getIfPresent(key);
+
+        if (matches == null) {
+            long expectedGeneration = generation.get();
+            matches = List.copyOf(search.apply(key));
+
+            if (generation.get() == expectedGeneration) {
+                ids.put(key, matches);
+
+                if (generation.get() != expectedGeneration) {
+                    ids.invalidate(key);
+                }
+            }
+        }
+
+        return matches.isEmpty() ? new LinkedHashSet<>() : new LinkedHashSet<>(loader.apply(matches));
+    }
+
+    public CacheStats stats() {
+        return ids.stats();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (entityType.isInstance(event.entity())) {
+            generation.incrementAndGet();
+            ids.invalidateAll();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, ids, name);
+    }
+
+    static String normalize(String term) {
+        return term == null ? "" : SPACES.matcher(term.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
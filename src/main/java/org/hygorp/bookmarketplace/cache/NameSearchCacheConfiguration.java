@@ -0,0 +1,71 @@
+package org.hygorp.bookmarketplace.cache;
+
+import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.entities.PublisherEntity;
+import org.hygorp.bookmarketplace.entities.SellerEntity;
+import org.hygorp.bookmarketplace.records.EntityId;
+import org.hygorp.bookmarketplace.repositories.AuthorRepository;
+import org.hygorp.bookmarketplace.repositories.GenreRepository;
+import org.hygorp.bookmarketplace.repositories.PublisherRepository;
+import org.hygorp.bookmarketplace.repositories.SellerRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Configuration
+public class NameSearchCacheConfiguration {
+    @Bean
+    public NameSearchCache<AuthorEntity> authorSearchCache(AuthorRepository authorRepository) {
+        return new NameSearchCache<>(
+                "name-search.authors",
+                AuthorEntity.class,
+                name -> authorRepository.findAllIdsByNameContainingIgnoreCase(name).stream().map(EntityId::id).toList(),
+                inIdOrder(authorRepository::findAllById, AuthorEntity::getId)
+        );
+    }
+
+    @Bean
+    public NameSearchCache<GenreEntity> genreSearchCache(GenreRepository genreRepository) {
+        return new NameSearchCache<>(
+                "name-search.genres",
+                GenreEntity.class,
+                name -> genreRepository.findAllIdsByNameContainingIgnoreCase(name).stream().map(EntityId::id).toList(),
+                inIdOrder(genreRepository::findAllById, GenreEntity::getId)
+        );
+    }
+
+    @Bean
+    public NameSearchCache<PublisherEntity> publisherSearchCache(PublisherRepository publisherRepository) {
+        return new NameSearchCache<>(
+                "name-search.publishers",
+                PublisherEntity.class,
+                name -> publisherRepository.findAllIdsByNameContainingIgnoreCase(name).stream().map(EntityId::id).toList(),
+                inIdOrder(publisherRepository::findAllById, PublisherEntity::getId)
+        );
+    }
+
+    @Bean
+    public NameSearchCache<SellerEntity> sellerSearchCache(SellerRepository sellerRepository) {
+        return new NameSearchCache<>(
+                "name-search.sellers",
+                SellerEntity.class,
+                name -> sellerRepository.findAllIdsByNameContainingIgnoreCase(name).stream().map(EntityId::id).toList(),
+                inIdOrder(sellerRepository::findAllById, SellerEntity::getId)
+        );
+    }
+
+    private static <E> Function<List<UUID>, List<E>> inIdOrder(Function<List<UUID>, List<E>> findAllById, Function<E, UUID> idOf) {
+        return ids -> {
+            Map<UUID, E> found = findAllById.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+
+            return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+        };
+    }
+}
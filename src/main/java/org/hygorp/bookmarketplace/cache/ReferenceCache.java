@@ -0,0 +1,45 @@
+package org.hygorp.bookmarketplace.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class ReferenceCache {
+    private static final Map<Class<?>, String> BOOK_COLLECTIONS = Map.of(
+            AuthorEntity.class, BookEntity.class.getName() + ".authors",
+            GenreEntity.class, BookEntity.class.getName() + ".genres"
+    );
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ReferenceCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public boolean contains(Class<?> entityType, UUID id) {
+        return entityManagerFactory.getCache().contains(entityType, id);
+    }
+
+    public void evict(Class<?> entityType, UUID id) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+
+        cache.evictEntityData(entityType, id);
+
+        if (entityType == BookEntity.class) {
+            BOOK_COLLECTIONS.values().forEach(role -> cache.evictCollectionData(role, id));
+            return;
+        }
+
+        String bookCollection = BOOK_COLLECTIONS.get(entityType);
+        if (bookCollection != null) {
+            cache.evictCollectionData(bookCollection);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.hygorp.bookmarketplace.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.Hibernate;
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.events.StockReservedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class ResponseCache {
+    private static final long MAXIMUM_BYTES = 64L * 1024 * 1024;
+    private static final int GZIP_THRESHOLD = 1024;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<Key, CachedResponse> responses = Caffeine.newBuilder()
+            .maximumWeight(MAXIMUM_BYTES)
+            .weigher((Key key, CachedResponse response) -> response.weight())
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public CachedResponse get(Key key) {
+        return responses.getIfPresent(key);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(Key key, long expectedGeneration, byte[] body, String contentType, String etag, long lastModified) {
+        if (generation.get() != expectedGeneration) {
+            return;
+        }
+
+        responses.put(key, new CachedResponse(body, body.length >= GZIP_THRESHOLD ? gzip(body) : null, contentType, etag, lastModified));
+
+        if (generation.get() != expectedGeneration) {
+            responses.invalidate(key);
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        evict(Hibernate.getClass(event.entity()));
+    }
+
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        evict(BookEntity.class);
+    }
+
+    @EventListener
+    public void onBooksDeleted(BooksDeletedEvent event) {
+        evict(BookEntity.class);
+    }
+
+    @EventListener
+    public void onStockReserved(StockReservedEvent event) {
+        if (event.stock() == 0) {
+            generation.incrementAndGet();
+            responses.asMap().keySet().removeIf(key -> key.endpoint() == CachedEndpoint.SELLER_PAGES);
+        }
+    }
+
+    private void evict(Class<?> entityType) {
+        generation.incrementAndGet();
+        responses.asMap().keySet().removeIf(key -> key.endpoint().dependsOn(entityType));
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(body);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return output.toByteArray();
+    }
+
+    public record Key(CachedEndpoint endpoint, String path, String query) {
+    }
+
+    public record CachedResponse(byte[] body, byte[] gzipped, String contentType, String etag, long lastModified) {
+        int weight() {
+            return body.length + (gzipped == null ? 0 : gzipped.length);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.hygorp.bookmarketplace.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    public static final String CACHE_HEADER = "X-Response-Cache";
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || CachedEndpoint.match(path(request)).isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = path(request);
+        Optional<CachedEndpoint> endpoint = CachedEndpoint.match(path);
+
+        if (endpoint.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ResponseCache.Key key = new ResponseCache.Key(endpoint.get(), path, query(request));
+        ResponseCache.CachedResponse cached = responseCache.get(key);
+
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+
+        long generation = responseCache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(CACHE_HEADER, "MISS");
+        wrapper.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        filterChain.doFilter(request, wrapper);
+
+        boolean stale = request.getAttribute(StaleWhileRevalidateCache.STALE_ATTRIBUTE) != null;
+
+        if (!stale && wrapper.getStatus() == HttpServletResponse.SC_OK && isJson(wrapper.getContentType())) {
+            responseCache.put(
+                    key,
+                    generation,
+                    wrapper.getContentAsByteArray(),
+                    wrapper.getContentType(),
+                    wrapper.getHeader(HttpHeaders.ETAG),
+                    lastModified(wrapper.getHeader(HttpHeaders.LAST_MODIFIED))
+            );
+        }
+
+        wrapper.copyBodyToResponse();
+    }
+
+    private void write(ResponseCache.CachedResponse cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(CACHE_HEADER, "HIT");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (cached.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, cached.etag());
+        }
+
+        if (cached.lastModified() >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, cached.lastModified());
+        }
+
+        if (isNotModified(cached, request)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = cached.body();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+
+        if (cached.gzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = cached.gzipped();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean isNotModified(ResponseCache.CachedResponse cached, HttpServletRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        if (ifNoneMatch != null) {
+            return ifNoneMatch.equals(cached.etag());
+        }
+
+        long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+
+        return ifModifiedSince >= 0 && cached.lastModified() >= 0 && cached.lastModified() <= ifModifiedSince;
+    }
+
+    private static long lastModified(String header) {
+        return header == null ? -1 : ZonedDateTime.parse(header, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String query(HttpServletRequest request) {
+        return new TreeMap<>(request.getParameterMap()).entrySet().stream()
+                .flatMap(parameter -> Stream.of(parameter.getValue()).map(value -> parameter.getKey() + "=" + value))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+}
@@ -0,0 +1,111 @@
+package org.hygorp.bookmarketplace.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.Hibernate;
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class StaleWhileRevalidateCache<K, V> implements MeterBinder {
+    public static final String STALE_ATTRIBUTE = StaleWhileRevalidateCache.class.getName() + ".STALE";
+    private static final long MAXIMUM_SIZE = 1_000;
+
+    private final String name;
+    private final Set<Class<?>> dependencies;
+    private final AtomicLong generation = new AtomicLong();
+    private final LoadingCache<K, Entry<V>> entries;
+
+    public StaleWhileRevalidateCache(String name, Duration softTtl, Duration hardTtl, Set<Class<?>> dependencies, Function<K, V> loader) {
+        this(name, softTtl, hardTtl, dependencies, loader, Ticker.systemTicker(),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-refresh-", 0).factory()));
+    }
+
+    StaleWhileRevalidateCache(String name, Duration softTtl, Duration hardTtl, Set<Class<?>> dependencies, Function<K, V> loader, Ticker ticker, Executor executor) {
+        if (softTtl.isNegative() || softTtl.isZero() || hardTtl.compareTo(softTtl) <= 0) {
+            throw new IllegalArgumentException("Soft TTL of " + name + " must be positive and shorter than its hard TTL");
+        }
+
+        this.name = name;
+        this.dependencies = dependencies;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .refreshAfterWrite(softTtl)
+                .expireAfterWrite(hardTtl)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build(key -> {
+                    long loadedGeneration = generation.get();
+                    return new Entry<>(loadedGeneration, loader.apply(key));
+                });
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+
+        if (entry.generation() != generation.get()) {
+            entries.refresh(key);
+            markStale();
+        }
+
+        return entry.value();
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(Hibernate.getClass(event.entity()));
+    }
+
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        invalidate(BookEntity.class);
+    }
+
+    @EventListener
+    public void onBooksDeleted(BooksDeletedEvent event) {
+        invalidate(BookEntity.class);
+    }
+
+    private void invalidate(Class<?> entityType) {
+        if (dependencies.contains(entityType)) {
+            generation.incrementAndGet();
+        }
+    }
+
+    private static void markStale() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes != null) {
+            attributes.setAttribute(STALE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, name);
+    }
+
+    private record Entry<V>(long generation, V value) {
+    }
+}
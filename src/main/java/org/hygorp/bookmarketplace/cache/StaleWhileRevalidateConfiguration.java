@@ -0,0 +1,55 @@
+package org.hygorp.bookmarketplace.cache;
+
+import org.hygorp.bookmarketplace.entities.*;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.hygorp.bookmarketplace.repositories.GenreRepository;
+import org.hygorp.bookmarketplace.repositories.PublisherRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+public class StaleWhileRevalidateConfiguration {
+    private static final Set<Class<?>> CATALOG = Set.of(
+            BookEntity.class, AuthorEntity.class, GenreEntity.class, PublisherEntity.class, SellerEntity.class, AddressEntity.class
+    );
+
+    @Bean
+    public StaleWhileRevalidateCache<Pageable, Page<BookSummary>> bookPageCache(
+            BookRepository bookRepository,
+            @Value("${book-marketplace.stale-while-revalidate.books.soft-ttl:5s}") Duration softTtl,
+            @Value("${book-marketplace.stale-while-revalidate.books.hard-ttl:60s}") Duration hardTtl
+    ) {
+        return new StaleWhileRevalidateCache<>(
+                "swr.books",
+                softTtl,
+                hardTtl,
+                Set.of(BookEntity.class, AuthorEntity.class, SellerEntity.class),
+                bookRepository::findAllSummaries
+        );
+    }
+
+    @Bean
+    public StaleWhileRevalidateCache<Pageable, Page<GenreEntity>> genrePageCache(
+            GenreRepository genreRepository,
+            @Value("${book-marketplace.stale-while-revalidate.genres.soft-ttl:30s}") Duration softTtl,
+            @Value("${book-marketplace.stale-while-revalidate.genres.hard-ttl:5m}") Duration hardTtl
+    ) {
+        return new StaleWhileRevalidateCache<>("swr.genres", softTtl, hardTtl, CATALOG, genreRepository::findAll);
+    }
+
+    @Bean
+    public StaleWhileRevalidateCache<Pageable, Page<PublisherEntity>> publisherPageCache(
+            PublisherRepository publisherRepository,
+            @Value("${book-marketplace.stale-while-revalidate.publishers.soft-ttl:30s}") Duration softTtl,
+            @Value("${book-marketplace.stale-while-revalidate.publishers.hard-ttl:5m}") Duration hardTtl
+    ) {
+        return new StaleWhileRevalidateCache<>("swr.publishers", softTtl, hardTtl, CATALOG, publisherRepository::findAll);
+    }
+}
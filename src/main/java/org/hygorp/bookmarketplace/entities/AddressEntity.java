@@ -2,12 +2,17 @@ package org.hygorp.bookmarketplace.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hygorp.bookmarketplace.events.EntityChangeListener;
+import org.hygorp.bookmarketplace.identifiers.UuidV7;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity(name = "tb_address")
+@EntityListeners(EntityChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -19,9 +24,12 @@ public class AddressEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @Column(nullable = false)
     private String addressLine;
 
@@ -3,18 +3,32 @@ package org.hygorp.bookmarketplace.entities;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hygorp.bookmarketplace.events.EntityChangeListener;
 import org.hygorp.bookmarketplace.enums.Condition;
 import org.hygorp.bookmarketplace.enums.CoverType;
 import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.identifiers.UuidV7;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
 @Entity(name = "tb_book")
+@Table(indexes = {
+        @Index(name = "idx_book_title_id", columnList = "title, id"),
+        @Index(name = "idx_book_seller_id", columnList = "seller_id")
+})
+@DynamicUpdate
+@EntityListeners(EntityChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -26,9 +40,17 @@ public class BookEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @Column(nullable = false)
     private String title;
 
@@ -63,6 +85,7 @@ public class BookEntity implements Serializable {
     private Language language;
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "tb_book_author",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -72,6 +95,7 @@ public class BookEntity implements Serializable {
     private Set<AuthorEntity> authors = new HashSet<>();
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "tb_book_genre",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -2,6 +2,7 @@ package org.hygorp.bookmarketplace.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hygorp.bookmarketplace.identifiers.UuidV7;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -21,7 +22,7 @@ public class CartEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
@@ -2,6 +2,8 @@ package org.hygorp.bookmarketplace.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hygorp.bookmarketplace.events.EntityChangeListener;
+import org.hygorp.bookmarketplace.identifiers.UuidV7;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -10,6 +12,7 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity(name = "tb_client")
+@EntityListeners(EntityChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -21,7 +24,7 @@ public class ClientEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -3,6 +3,11 @@ package org.hygorp.bookmarketplace.entities;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hygorp.bookmarketplace.events.EntityChangeListener;
+import org.hygorp.bookmarketplace.identifiers.UuidV7;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -12,6 +17,8 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity(name = "tb_seller")
+@DynamicUpdate
+@EntityListeners(EntityChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -23,9 +30,17 @@ public class SellerEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @Column(unique = true, nullable = false)
     private String name;
 
@@ -1,7 +1,10 @@
 package org.hygorp.bookmarketplace.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hygorp.bookmarketplace.events.EntityChangeListener;
+import org.hygorp.bookmarketplace.identifiers.UuidV7;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,9 +13,11 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity(name = "tb_user")
+@EntityListeners(EntityChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -24,12 +29,17 @@ public class UserEntity implements UserDetails, Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false, unique = true)
     private String username;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalized_username", unique = true)
+    private String normalizedUsername;
+
     @Column(nullable = false, columnDefinition = "TEXT")
     private String password;
 
@@ -51,6 +61,21 @@ public class UserEntity implements UserDetails, Serializable {
         return this.username;
     }
 
+    public void setUsername(String username) {
+        this.username = username;
+        this.normalizedUsername = normalize(username);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeUsername() {
+        this.normalizedUsername = normalize(username);
+    }
+
+    public static String normalize(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
@@ -73,6 +98,7 @@ public class UserEntity implements UserDetails, Serializable {
 
     public UserEntity(String username, String password, String role) {
         this.username = username;
+        this.normalizedUsername = normalize(username);
         this.password = password;
         this.role = role;
     }
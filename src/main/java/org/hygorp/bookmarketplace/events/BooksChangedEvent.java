@@ -0,0 +1,11 @@
+package org.hygorp.bookmarketplace.events;
+
+import org.hygorp.bookmarketplace.entities.BookEntity;
+
+import java.util.List;
+
+public record BooksChangedEvent(List<BookEntity> books, EntityChangedEvent.Action action, boolean remote) {
+    public BooksChangedEvent(List<BookEntity> books, EntityChangedEvent.Action action) {
+        this(books, action, false);
+    }
+}
@@ -0,0 +1,10 @@
+package org.hygorp.bookmarketplace.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record BooksDeletedEvent(UUID sellerId, Instant soldOutBefore, boolean remote) {
+    public BooksDeletedEvent(UUID sellerId, Instant soldOutBefore) {
+        this(sellerId, soldOutBefore, false);
+    }
+}
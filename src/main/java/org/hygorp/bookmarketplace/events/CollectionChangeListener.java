@@ -0,0 +1,48 @@
+package org.hygorp.bookmarketplace.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CollectionChangeListener implements PostCollectionRecreateEventListener, PostCollectionUpdateEventListener {
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityChangeListener entityChangeListener;
+
+    public CollectionChangeListener(EntityManagerFactory entityManagerFactory, EntityChangeListener entityChangeListener) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityChangeListener = entityChangeListener;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChanged(event);
+    }
+
+    private void onCollectionChanged(AbstractCollectionEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+
+        if (owner != null && owner.getClass().isAnnotationPresent(EntityListeners.class)) {
+            entityChangeListener.onSave(owner);
+        }
+    }
+}
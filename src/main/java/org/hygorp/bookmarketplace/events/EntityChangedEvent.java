@@ -0,0 +1,11 @@
+package org.hygorp.bookmarketplace.events;
+
+public record EntityChangedEvent(Object entity, Action action, boolean remote) {
+    public EntityChangedEvent(Object entity, Action action) {
+        this(entity, action, false);
+    }
+
+    public enum Action {
+        SAVED, DELETED
+    }
+}
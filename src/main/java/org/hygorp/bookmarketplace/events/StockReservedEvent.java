@@ -0,0 +1,9 @@
+package org.hygorp.bookmarketplace.events;
+
+import java.util.UUID;
+
+public record StockReservedEvent(UUID bookId, Integer stock, boolean remote) {
+    public StockReservedEvent(UUID bookId, Integer stock) {
+        this(bookId, stock, false);
+    }
+}
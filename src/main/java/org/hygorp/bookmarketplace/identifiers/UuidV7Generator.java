@@ -0,0 +1,60 @@
+package org.hygorp.bookmarketplace.identifiers;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+public class UuidV7Generator implements BeforeExecutionGenerator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Sequence SEQUENCE = new Sequence();
+
+    public static UUID next() {
+        return SEQUENCE.next(System.currentTimeMillis());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    static final class Sequence {
+        private static final int MAX_COUNTER = 0xFFF;
+        private static final int COUNTER_SEED_BOUND = 0x800;
+
+        private long lastMillis = -1;
+        private int counter;
+
+        UUID next(long now) {
+            long millis;
+            int sequence;
+
+            synchronized (this) {
+                if (now > lastMillis) {
+                    lastMillis = now;
+                    counter = RANDOM.nextInt(COUNTER_SEED_BOUND);
+                } else if (++counter > MAX_COUNTER) {
+                    lastMillis++;
+                    counter = 0;
+                }
+
+                millis = lastMillis;
+                sequence = counter;
+            }
+
+            long mostSignificantBits = (millis << 16) | 0x7000L | sequence;
+            long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+            return new UUID(mostSignificantBits, leastSignificantBits);
+        }
+    }
+}
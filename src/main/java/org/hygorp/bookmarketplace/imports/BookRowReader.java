@@ -0,0 +1,41 @@
+package org.hygorp.bookmarketplace.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hygorp.bookmarketplace.records.BookImportRow;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+public interface BookRowReader extends Closeable {
+    String TEXT_CSV_VALUE = "text/csv";
+    MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    BookImportRow read() throws IOException;
+
+    static BookRowReader of(MediaType contentType, Reader reader, ObjectMapper objectMapper) throws IOException {
+        BufferedReader bufferedReader = new BufferedReader(reader);
+
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new CsvBookRowReader(bufferedReader);
+        }
+
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonBookRowReader(bufferedReader, objectMapper);
+        }
+
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+
+    static List<String> splitNames(String names) {
+        if (names == null || names.isBlank()) {
+            return List.of();
+        }
+
+        return Arrays.stream(names.split("\\|")).map(String::strip).filter(name -> !name.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package org.hygorp.bookmarketplace.imports;
+
+import org.hygorp.bookmarketplace.records.BookImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class CsvBookRowReader implements BookRowReader {
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long row;
+
+    public CsvBookRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+
+        List<String> header = readRecord();
+
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+            }
+        }
+    }
+
+    @Override
+    public BookImportRow read() throws IOException {
+        List<String> fields;
+
+        do {
+            row++;
+            fields = readRecord();
+
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.getFirst().isBlank());
+
+        return new BookImportRow(
+                row,
+                field(fields, "title"),
+                field(fields, "description"),
+                field(fields, "publisheddate"),
+                field(fields, "isbn"),
+                field(fields, "image"),
+                field(fields, "price"),
+                field(fields, "stock"),
+                field(fields, "condition"),
+                field(fields, "covertype"),
+                field(fields, "language"),
+                field(fields, "publisher"),
+                BookRowReader.splitNames(field(fields, "authors")),
+                BookRowReader.splitNames(field(fields, "genres"))
+        );
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+
+        if (index == null || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+
+        return fields.get(index).strip();
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new MalformedRowException(row, "Unterminated quoted field");
+                }
+
+                if (c == '"') {
+                    c = reader.read();
+
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+
+            c = reader.read();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.hygorp.bookmarketplace.imports;
+
+public class MalformedRowException extends RuntimeException {
+    private final long row;
+
+    public MalformedRowException(long row, String message) {
+        super(message);
+        this.row = row;
+    }
+
+    public long getRow() {
+        return row;
+    }
+}
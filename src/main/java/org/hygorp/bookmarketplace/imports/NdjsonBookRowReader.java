@@ -0,0 +1,93 @@
+package org.hygorp.bookmarketplace.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hygorp.bookmarketplace.records.BookImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NdjsonBookRowReader implements BookRowReader {
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long row;
+
+    public NdjsonBookRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public BookImportRow read() throws IOException {
+        String line;
+
+        do {
+            row++;
+            line = reader.readLine();
+
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        JsonNode node;
+
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException exception) {
+            throw new MalformedRowException(row, "Malformed JSON");
+        }
+
+        if (!node.isObject()) {
+            throw new MalformedRowException(row, "Expected a JSON object");
+        }
+
+        return new BookImportRow(
+                row,
+                text(node, "title"),
+                text(node, "description"),
+                text(node, "publishedDate"),
+                text(node, "isbn"),
+                text(node, "image"),
+                text(node, "price"),
+                text(node, "stock"),
+                text(node, "condition"),
+                text(node, "coverType"),
+                text(node, "language"),
+                text(node, "publisher"),
+                names(node, "authors"),
+                names(node, "genres")
+        );
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+
+        return value == null || value.isNull() || value.asText().isBlank() ? null : value.asText().strip();
+    }
+
+    private static List<String> names(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+
+        if (value == null || value.isNull()) {
+            return List.of();
+        }
+
+        if (!value.isArray()) {
+            return BookRowReader.splitNames(value.asText());
+        }
+
+        List<String> names = new ArrayList<>();
+        value.forEach(name -> names.addAll(BookRowReader.splitNames(name.asText())));
+
+        return names;
+    }
+}
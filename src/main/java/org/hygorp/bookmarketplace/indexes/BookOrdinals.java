@@ -0,0 +1,67 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class BookOrdinals {
+    private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+    private final Deque<Integer> released = new ArrayDeque<>();
+    private volatile UUID[] ids = new UUID[1024];
+    private int[] references = new int[1024];
+    private int next;
+
+    public OptionalInt find(UUID id) {
+        Integer ordinal = ordinals.get(id);
+
+        return ordinal == null ? OptionalInt.empty() : OptionalInt.of(ordinal);
+    }
+
+    public synchronized int acquire(UUID id) {
+        Integer ordinal = ordinals.get(id);
+
+        if (ordinal == null) {
+            ordinal = released.isEmpty() ? allocate() : released.pop();
+            ids[ordinal] = id;
+            ordinals.put(id, ordinal);
+        }
+
+        references[ordinal]++;
+
+        return ordinal;
+    }
+
+    public synchronized void release(int ordinal) {
+        if (--references[ordinal] > 0) {
+            return;
+        }
+
+        ordinals.remove(ids[ordinal]);
+        ids[ordinal] = null;
+        released.push(ordinal);
+    }
+
+    public UUID idOf(int ordinal) {
+        return ids[ordinal];
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    private int allocate() {
+        if (next == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            references = Arrays.copyOf(references, references.length * 2);
+        }
+
+        return next++;
+    }
+}
@@ -0,0 +1,364 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.records.BookFacets;
+import org.hygorp.bookmarketplace.records.BookFilter;
+import org.hygorp.bookmarketplace.records.BookGenre;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Component
+public class FacetIndex {
+    public static final String CONDITION = "condition";
+    public static final String COVER_TYPE = "coverType";
+    public static final String LANGUAGE = "language";
+    public static final String GENRE = "genre";
+    public static final String PUBLISHER = "publisher";
+
+    private final BookRepository bookRepository;
+    private final BookOrdinals bookOrdinals;
+    private final PriceIndex priceIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Dimension<Condition> conditions = new Dimension<>();
+    private final Dimension<CoverType> coverTypes = new Dimension<>();
+    private final Dimension<Language> languages = new Dimension<>();
+    private final Dimension<UUID> genres = new Dimension<>();
+    private final Dimension<UUID> publishers = new Dimension<>();
+    private final Map<Integer, Facets> facetsByOrdinal = new HashMap<>();
+    private Map<UUID, Facets> pending;
+
+    public FacetIndex(BookRepository bookRepository, BookOrdinals bookOrdinals, PriceIndex priceIndex) {
+        this.bookRepository = bookRepository;
+        this.bookOrdinals = bookOrdinals;
+        this.priceIndex = priceIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        setPending(new LinkedHashMap<>());
+
+        Map<UUID, Set<UUID>> genresByBook;
+        List<BookFacets> books;
+
+        try {
+            genresByBook = bookRepository.findAllGenreLinks().stream()
+                    .collect(Collectors.groupingBy(BookGenre::bookId, Collectors.mapping(BookGenre::genreId, Collectors.toSet())));
+            books = bookRepository.findAllFacets();
+        } catch (RuntimeException exception) {
+            setPending(null);
+            throw exception;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Integer> previous = List.copyOf(facetsByOrdinal.keySet());
+
+            live.clear();
+            List.of(conditions, coverTypes, languages, genres, publishers).forEach(Dimension::clear);
+            facetsByOrdinal.clear();
+
+            books.forEach(book -> put(bookOrdinals.acquire(book.id()), new Facets(
+                    book.condition(),
+                    book.coverType(),
+                    book.language(),
+                    genresByBook.getOrDefault(book.id(), Set.of()),
+                    book.publisherId()
+            )));
+
+            pending.forEach((id, facets) -> {
+                bookOrdinals.find(id).ifPresent(this::evict);
+
+                if (facets != null) {
+                    put(bookOrdinals.acquire(id), facets);
+                }
+            });
+            pending = null;
+
+            previous.forEach(bookOrdinals::release);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.entity() instanceof BookEntity book)) {
+            return;
+        }
+
+        if (event.remote()) {
+            refresh(List.of(book.getId()));
+        } else if (event.action() == EntityChangedEvent.Action.DELETED) {
+            remove(book.getId());
+        } else {
+            index(book);
+        }
+    }
+
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (event.remote()) {
+            refresh(event.books().stream().map(BookEntity::getId).toList());
+            return;
+        }
+
+        Map<UUID, Facets> changes = new LinkedHashMap<>();
+        event.books().forEach(book -> changes.put(
+                book.getId(),
+                event.action() == EntityChangedEvent.Action.DELETED ? null : facetsOf(book)
+        ));
+
+        lock.writeLock().lock();
+        try {
+            changes.forEach(this::update);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onBooksDeleted(BooksDeletedEvent event) {
+        rebuild();
+    }
+
+    public void index(BookEntity book) {
+        Facets facets = facetsOf(book);
+
+        lock.writeLock().lock();
+        try {
+            update(book.getId(), facets);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void refresh(Collection<UUID> ids) {
+        Map<UUID, Set<UUID>> genresByBook = bookRepository.findAllGenreLinksByBookIdIn(ids).stream()
+                .collect(Collectors.groupingBy(BookGenre::bookId, Collectors.mapping(BookGenre::genreId, Collectors.toSet())));
+        Map<UUID, Facets> changes = new LinkedHashMap<>();
+        ids.forEach(id -> changes.put(id, null));
+        bookRepository.findAllFacetsByIdIn(ids).forEach(book -> changes.put(book.id(), new Facets(
+                book.condition(),
+                book.coverType(),
+                book.language(),
+                genresByBook.getOrDefault(book.id(), Set.of()),
+                book.publisherId()
+        )));
+
+        lock.writeLock().lock();
+        try {
+            changes.forEach(this::update);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            update(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result browse(BookFilter filter, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<String, RoaringBitmap> matches = new LinkedHashMap<>();
+            matches.put(CONDITION, conditions.match(filter.conditions()));
+            matches.put(COVER_TYPE, coverTypes.match(filter.coverTypes()));
+            matches.put(LANGUAGE, languages.match(filter.languages()));
+            matches.put(GENRE, genres.match(filter.genres()));
+            matches.put(PUBLISHER, publishers.match(filter.publishers()));
+
+            RoaringBitmap priceMatch = filter.hasPriceRange() ? priceIndex.between(
+                    filter.minPrice() == null ? null : PriceIndex.toCents(filter.minPrice()),
+                    filter.maxPrice() == null ? null : PriceIndex.toCents(filter.maxPrice())
+            ) : null;
+            RoaringBitmap matching = intersect(matches, priceMatch, null);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(CONDITION, conditions.counts(intersect(matches, priceMatch, CONDITION)));
+            facets.put(COVER_TYPE, coverTypes.counts(intersect(matches, priceMatch, COVER_TYPE)));
+            facets.put(LANGUAGE, languages.counts(intersect(matches, priceMatch, LANGUAGE)));
+            facets.put(GENRE, genres.counts(intersect(matches, priceMatch, GENRE)));
+            facets.put(PUBLISHER, publishers.counts(intersect(matches, priceMatch, PUBLISHER)));
+
+            return new Result(page(matching, offset, limit), matching.getLongCardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setPending(Map<UUID, Facets> changes) {
+        lock.writeLock().lock();
+        try {
+            pending = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void update(UUID id, Facets facets) {
+        if (facets == null) {
+            bookOrdinals.find(id).ifPresent(this::evict);
+        } else {
+            int ordinal = bookOrdinals.acquire(id);
+            evict(ordinal);
+            put(ordinal, facets);
+        }
+
+        if (pending != null) {
+            pending.put(id, facets);
+        }
+    }
+
+    private void put(int ordinal, Facets facets) {
+        live.add(ordinal);
+        conditions.add(facets.condition(), ordinal);
+        coverTypes.add(facets.coverType(), ordinal);
+        languages.add(facets.language(), ordinal);
+        facets.genres().forEach(genre -> genres.add(genre, ordinal));
+        publishers.add(facets.publisher(), ordinal);
+        facetsByOrdinal.put(ordinal, facets);
+    }
+
+    private void evict(int ordinal) {
+        Facets facets = facetsByOrdinal.remove(ordinal);
+
+        if (facets == null) {
+            return;
+        }
+
+        live.remove(ordinal);
+        conditions.remove(facets.condition(), ordinal);
+        coverTypes.remove(facets.coverType(), ordinal);
+        languages.remove(facets.language(), ordinal);
+        facets.genres().forEach(genre -> genres.remove(genre, ordinal));
+        publishers.remove(facets.publisher(), ordinal);
+        bookOrdinals.release(ordinal);
+    }
+
+    private static Facets facetsOf(BookEntity book) {
+        return new Facets(
+                book.getCondition(),
+                book.getCoverType(),
+                book.getLanguage(),
+                book.getGenres().stream().map(GenreEntity::getId).collect(Collectors.toUnmodifiableSet()),
+                book.getPublisher() == null ? null : book.getPublisher().getId()
+        );
+    }
+
+    private RoaringBitmap intersect(Map<String, RoaringBitmap> matches, RoaringBitmap priceMatch, String excludedDimension) {
+        RoaringBitmap result = live.clone();
+
+        matches.forEach((dimension, match) -> {
+            if (match != null && !dimension.equals(excludedDimension)) {
+                result.and(match);
+            }
+        });
+
+        if (priceMatch != null) {
+            result.and(priceMatch);
+        }
+
+        return result;
+    }
+
+    private List<UUID> page(RoaringBitmap matching, long offset, int limit) {
+        if (offset >= matching.getLongCardinality()) {
+            return List.of();
+        }
+
+        List<UUID> ids = new ArrayList<>(limit);
+        PeekableIntIterator iterator = matching.getIntIterator();
+        iterator.advanceIfNeeded(matching.select((int) offset));
+
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(bookOrdinals.idOf(iterator.next()));
+        }
+
+        return ids;
+    }
+
+    public record Result(List<UUID> ids, long total, Map<String, Map<String, Integer>> facets) {
+    }
+
+    private record Facets(
+            Condition condition,
+            CoverType coverType,
+            Language language,
+            Set<UUID> genres,
+            UUID publisher
+    ) {
+    }
+
+    private static final class Dimension<K> {
+        private final Map<K, RoaringBitmap> bitmaps = new HashMap<>();
+
+        void add(K key, int ordinal) {
+            if (key != null) {
+                bitmaps.computeIfAbsent(key, value -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        void remove(K key, int ordinal) {
+            RoaringBitmap bitmap = bitmaps.get(key);
+
+            if (bitmap == null) {
+                return;
+            }
+
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+
+        void clear() {
+            bitmaps.clear();
+        }
+
+        RoaringBitmap match(Set<K> keys) {
+            if (keys.isEmpty()) {
+                return null;
+            }
+
+            return FastAggregation.or(keys.stream()
+                    .map(bitmaps::get)
+                    .filter(Objects::nonNull)
+                    .iterator());
+        }
+
+        Map<String, Integer> counts(RoaringBitmap base) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+
+            bitmaps.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey().toString(), RoaringBitmap.andCardinality(base, entry.getValue())))
+                    .filter(entry -> entry.getValue() > 0)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.records.BookIsbn;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class IsbnIndex {
+    private final BookRepository bookRepository;
+    private final Map<UUID, String> isbns = new HashMap<>();
+    private final Map<String, Set<UUID>> books = new ConcurrentHashMap<>();
+
+    public IsbnIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<BookIsbn> rows = bookRepository.findAllIsbns();
+
+        isbns.clear();
+        books.clear();
+        rows.forEach(row -> put(row.id(), IsbnNormalizer.canonicalize(row.isbn())));
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.entity() instanceof BookEntity book)) {
+            return;
+        }
+
+        if (event.remote()) {
+            refresh(List.of(book.getId()));
+        } else if (event.action() == EntityChangedEvent.Action.DELETED) {
+            remove(book.getId());
+        } else {
+            index(book.getId(), book.getIsbn());
+        }
+    }
+
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (event.remote()) {
+            refresh(event.books().stream().map(BookEntity::getId).toList());
+            return;
+        }
+
+        synchronized (this) {
+            for (BookEntity book : event.books()) {
+                evict(book.getId());
+
+                if (event.action() == EntityChangedEvent.Action.SAVED) {
+                    put(book.getId(), IsbnNormalizer.canonicalize(book.getIsbn()));
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onBooksDeleted(BooksDeletedEvent event) {
+        rebuild();
+    }
+
+    public synchronized void index(UUID id, String isbn) {
+        evict(id);
+        put(id, IsbnNormalizer.canonicalize(isbn));
+    }
+
+    public void refresh(Collection<UUID> ids) {
+        List<BookIsbn> rows = bookRepository.findAllIsbnsByIdIn(ids);
+
+        synchronized (this) {
+            ids.forEach(this::evict);
+            rows.forEach(row -> put(row.id(), IsbnNormalizer.canonicalize(row.isbn())));
+        }
+    }
+
+    public synchronized void remove(UUID id) {
+        evict(id);
+    }
+
+    public Set<UUID> find(String isbn) {
+        return books.getOrDefault(IsbnNormalizer.canonicalize(isbn), Set.of());
+    }
+
+    private void put(UUID id, String canonicalIsbn) {
+        if (canonicalIsbn.isEmpty()) {
+            return;
+        }
+
+        isbns.put(id, canonicalIsbn);
+        books.merge(canonicalIsbn, Set.of(id), (current, added) -> {
+            Set<UUID> merged = new HashSet<>(current);
+            merged.addAll(added);
+            return Set.copyOf(merged);
+        });
+    }
+
+    private void evict(UUID id) {
+        String canonicalIsbn = isbns.remove(id);
+
+        if (canonicalIsbn == null) {
+            return;
+        }
+
+        books.computeIfPresent(canonicalIsbn, (key, current) -> {
+            Set<UUID> remaining = new HashSet<>(current);
+            remaining.remove(id);
+            return remaining.isEmpty() ? null : Set.copyOf(remaining);
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class IsbnNormalizer {
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s-]+");
+    private static final Pattern ISBN_10 = Pattern.compile("\\d{9}[\\dX]");
+    private static final Pattern ISBN_13 = Pattern.compile("97[89]\\d{10}");
+
+    private IsbnNormalizer() {
+    }
+
+    public static String canonicalize(String isbn) {
+        String compact = compact(isbn);
+
+        if (isValidIsbn10(compact)) {
+            String isbn13 = "978" + compact.substring(0, 9);
+
+            return isbn13 + isbn13CheckDigit(isbn13);
+        }
+
+        return compact;
+    }
+
+    public static boolean isValid(String isbn) {
+        String compact = compact(isbn);
+
+        return isValidIsbn10(compact) || isValidIsbn13(compact);
+    }
+
+    private static String compact(String isbn) {
+        return isbn == null ? "" : SEPARATORS.matcher(isbn).replaceAll("").toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isValidIsbn10(String isbn) {
+        if (!ISBN_10.matcher(isbn).matches()) {
+            return false;
+        }
+
+        int sum = 0;
+
+        for (int i = 0; i < 10; i++) {
+            char digit = isbn.charAt(i);
+            sum += (10 - i) * (digit == 'X' ? 10 : digit - '0');
+        }
+
+        return sum % 11 == 0;
+    }
+
+    private static boolean isValidIsbn13(String isbn) {
+        return ISBN_13.matcher(isbn).matches() && isbn.charAt(12) == isbn13CheckDigit(isbn);
+    }
+
+    private static char isbn13CheckDigit(String digits) {
+        int sum = 0;
+
+        for (int i = 0; i < 12; i++) {
+            sum += (i % 2 == 0 ? 1 : 3) * (digits.charAt(i) - '0');
+        }
+
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
@@ -0,0 +1,181 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class NameSuggestionIndex<E> {
+    private final Class<E> entityType;
+    private final Function<E, Suggestion> toSuggestion;
+    private final Supplier<List<Suggestion>> loader;
+    private final Function<Collection<UUID>, List<Suggestion>> reloader;
+    private final Map<UUID, Suggestion> suggestions = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new UUID[0]);
+
+    public NameSuggestionIndex(
+            Class<E> entityType,
+            Function<E, Suggestion> toSuggestion,
+            Supplier<List<Suggestion>> loader,
+            Function<Collection<UUID>, List<Suggestion>> reloader
+    ) {
+        this.entityType = entityType;
+        this.toSuggestion = toSuggestion;
+        this.loader = loader;
+        this.reloader = reloader;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<Suggestion> loaded = loader.get();
+        List<Entry> entries = new ArrayList<>();
+
+        suggestions.clear();
+        for (Suggestion suggestion : loaded) {
+            suggestions.put(suggestion.id(), suggestion);
+            keys(suggestion.name()).forEach(key -> entries.add(new Entry(key, suggestion.id())));
+        }
+
+        entries.sort(Comparator.naturalOrder());
+        snapshot = Snapshot.of(entries);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!entityType.isInstance(event.entity())) {
+            return;
+        }
+
+        Suggestion suggestion = toSuggestion.apply(entityType.cast(event.entity()));
+
+        if (event.remote()) {
+            reloader.apply(List.of(suggestion.id())).stream()
+                    .findFirst()
+                    .ifPresentOrElse(this::index, () -> remove(suggestion.id()));
+            return;
+        }
+
+        if (event.action() == EntityChangedEvent.Action.DELETED) {
+            remove(suggestion.id());
+        } else {
+            index(suggestion);
+        }
+    }
+
+    public synchronized void index(Suggestion suggestion) {
+        List<Entry> added = keys(suggestion.name()).stream()
+                .map(key -> new Entry(key, suggestion.id()))
+                .sorted()
+                .toList();
+
+        suggestions.put(suggestion.id(), suggestion);
+        snapshot = snapshot.replace(suggestion.id(), added);
+    }
+
+    public synchronized void remove(UUID id) {
+        suggestions.remove(id);
+        snapshot = snapshot.replace(id, List.of());
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalizedPrefix = TextNormalizer.normalize(prefix);
+
+        if (normalizedPrefix.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        Set<UUID> ids = new LinkedHashSet<>();
+
+        for (int i = current.lowerBound(normalizedPrefix); i < current.keys().length && ids.size() < limit; i++) {
+            if (!current.keys()[i].startsWith(normalizedPrefix)) {
+                break;
+            }
+
+            ids.add(current.ids()[i]);
+        }
+
+        return ids.stream().map(suggestions::get).filter(Objects::nonNull).toList();
+    }
+
+    private static List<String> keys(String name) {
+        String normalizedName = TextNormalizer.normalize(name);
+        List<String> keys = new ArrayList<>();
+
+        for (int i = 0; i < normalizedName.length(); i++) {
+            if (i == 0 || normalizedName.charAt(i - 1) == ' ') {
+                keys.add(normalizedName.substring(i));
+            }
+        }
+
+        return keys;
+    }
+
+    private record Entry(String key, UUID id) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+
+            return byKey != 0 ? byKey : id.compareTo(other.id);
+        }
+    }
+
+    private record Snapshot(String[] keys, UUID[] ids) {
+        static Snapshot of(List<Entry> sortedEntries) {
+            String[] keys = new String[sortedEntries.size()];
+            UUID[] ids = new UUID[sortedEntries.size()];
+
+            for (int i = 0; i < sortedEntries.size(); i++) {
+                keys[i] = sortedEntries.get(i).key();
+                ids[i] = sortedEntries.get(i).id();
+            }
+
+            return new Snapshot(keys, ids);
+        }
+
+        Snapshot replace(UUID id, List<Entry> sortedAdditions) {
+            List<Entry> merged = new ArrayList<>(keys.length + sortedAdditions.size());
+            int next = 0;
+
+            for (int i = 0; i < keys.length; i++) {
+                if (ids[i].equals(id)) {
+                    continue;
+                }
+
+                Entry existing = new Entry(keys[i], ids[i]);
+
+                while (next < sortedAdditions.size() && sortedAdditions.get(next).compareTo(existing) < 0) {
+                    merged.add(sortedAdditions.get(next++));
+                }
+
+                merged.add(existing);
+            }
+
+            merged.addAll(sortedAdditions.subList(next, sortedAdditions.size()));
+
+            return of(merged);
+        }
+
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+
+                if (keys[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+    }
+}
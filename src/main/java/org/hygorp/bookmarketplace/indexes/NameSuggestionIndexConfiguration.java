@@ -0,0 +1,44 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.entities.PublisherEntity;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.hygorp.bookmarketplace.repositories.AuthorRepository;
+import org.hygorp.bookmarketplace.repositories.GenreRepository;
+import org.hygorp.bookmarketplace.repositories.PublisherRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NameSuggestionIndexConfiguration {
+    @Bean
+    public NameSuggestionIndex<AuthorEntity> authorSuggestionIndex(AuthorRepository authorRepository) {
+        return new NameSuggestionIndex<>(
+                AuthorEntity.class,
+                author -> new Suggestion(author.getId(), author.getName()),
+                authorRepository::findAllSuggestions,
+                authorRepository::findAllSuggestionsByIdIn
+        );
+    }
+
+    @Bean
+    public NameSuggestionIndex<GenreEntity> genreSuggestionIndex(GenreRepository genreRepository) {
+        return new NameSuggestionIndex<>(
+                GenreEntity.class,
+                genre -> new Suggestion(genre.getId(), genre.getName()),
+                genreRepository::findAllSuggestions,
+                genreRepository::findAllSuggestionsByIdIn
+        );
+    }
+
+    @Bean
+    public NameSuggestionIndex<PublisherEntity> publisherSuggestionIndex(PublisherRepository publisherRepository) {
+        return new NameSuggestionIndex<>(
+                PublisherEntity.class,
+                publisher -> new Suggestion(publisher.getId(), publisher.getName()),
+                publisherRepository::findAllSuggestions,
+                publisherRepository::findAllSuggestionsByIdIn
+        );
+    }
+}
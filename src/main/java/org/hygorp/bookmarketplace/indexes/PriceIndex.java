@@ -0,0 +1,364 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.records.BookPrice;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class PriceIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PriceIndex.class);
+    private static final long ORDINAL_MASK = 0xFFFFFFFFL;
+    private static final long MAX_CENTS = Integer.MAX_VALUE;
+
+    private final BookRepository bookRepository;
+    private final BookOrdinals bookOrdinals;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Long> entriesByOrdinal = new HashMap<>();
+    private long[] entries = new long[1024];
+    private int size;
+    private Map<UUID, Long> pending;
+
+    public PriceIndex(BookRepository bookRepository, BookOrdinals bookOrdinals) {
+        this.bookRepository = bookRepository;
+        this.bookOrdinals = bookOrdinals;
+    }
+
+    public static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        setPending(new LinkedHashMap<>());
+
+        List<BookPrice> books;
+
+        try {
+            books = bookRepository.findAllPrices();
+        } catch (RuntimeException exception) {
+            setPending(null);
+            throw exception;
+        }
+
+        long[] rebuilt = new long[Math.max(1024, books.size())];
+        Map<Integer, Long> rebuiltByOrdinal = new HashMap<>();
+        int count = 0;
+
+        lock.writeLock().lock();
+        try {
+            for (BookPrice book : books) {
+                Long cents = book.price() == null ? null : indexableCents(book.id(), book.price());
+
+                if (cents != null) {
+                    int ordinal = bookOrdinals.acquire(book.id());
+                    long entry = entry(cents, ordinal);
+                    rebuilt[count++] = entry;
+                    rebuiltByOrdinal.put(ordinal, entry);
+                }
+            }
+
+            Arrays.sort(rebuilt, 0, count);
+
+            entriesByOrdinal.keySet().forEach(bookOrdinals::release);
+            entries = rebuilt;
+            size = count;
+            entriesByOrdinal.clear();
+            entriesByOrdinal.putAll(rebuiltByOrdinal);
+
+            Map<UUID, Long> changes = pending;
+            pending = null;
+            updateAll(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.entity() instanceof BookEntity book)) {
+            return;
+        }
+
+        if (event.remote()) {
+            refresh(List.of(book.getId()));
+        } else if (event.action() == EntityChangedEvent.Action.DELETED || book.getPrice() == null) {
+            remove(book.getId());
+        } else {
+            index(book.getId(), book.getPrice());
+        }
+    }
+
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (event.remote()) {
+            refresh(event.books().stream().map(BookEntity::getId).toList());
+            return;
+        }
+
+        Map<UUID, Long> changes = new LinkedHashMap<>();
+
+        for (BookEntity book : event.books()) {
+            boolean removed = event.action() == EntityChangedEvent.Action.DELETED || book.getPrice() == null;
+            changes.put(book.getId(), removed ? null : indexableCents(book.getId(), book.getPrice()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            updateAll(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onBooksDeleted(BooksDeletedEvent event) {
+        rebuild();
+    }
+
+    public void index(UUID id, double price) {
+        Long cents = indexableCents(id, price);
+
+        lock.writeLock().lock();
+        try {
+            update(id, cents);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void refresh(Collection<UUID> ids) {
+        Map<UUID, Long> changes = new LinkedHashMap<>();
+        ids.forEach(id -> changes.put(id, null));
+        bookRepository.findAllPricesByIdIn(ids).forEach(book -> changes.put(
+                book.id(),
+                book.price() == null ? null : indexableCents(book.id(), book.price())
+        ));
+
+        lock.writeLock().lock();
+        try {
+            updateAll(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            update(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result range(Long minCents, Long maxCents, boolean descending, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(minCents);
+            int to = upperBound(maxCents);
+            int total = Math.max(0, to - from);
+            List<UUID> ids = new ArrayList<>(Math.min(limit, total));
+
+            for (long i = offset; i < total && ids.size() < limit; i++) {
+                int position = descending ? to - 1 - (int) i : from + (int) i;
+                ids.add(bookOrdinals.idOf(ordinal(entries[position])));
+            }
+
+            return new Result(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RoaringBitmap between(Long minCents, Long maxCents) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap ordinals = new RoaringBitmap();
+            int to = upperBound(maxCents);
+
+            for (int i = lowerBound(minCents); i < to; i++) {
+                ordinals.add(ordinal(entries[i]));
+            }
+
+            return ordinals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int lowerBound(Long minCents) {
+        if (minCents == null || minCents <= 0) {
+            return 0;
+        }
+
+        return minCents > MAX_CENTS ? size : search(minCents << 32);
+    }
+
+    private int upperBound(Long maxCents) {
+        if (maxCents == null || maxCents >= MAX_CENTS) {
+            return size;
+        }
+
+        return maxCents < 0 ? 0 : search((maxCents << 32) | ORDINAL_MASK);
+    }
+
+    private void update(UUID id, Long cents) {
+        if (pending != null) {
+            pending.put(id, cents);
+        }
+
+        if (cents == null) {
+            bookOrdinals.find(id).ifPresent(this::evict);
+            return;
+        }
+
+        int ordinal = bookOrdinals.acquire(id);
+        long entry = entry(cents, ordinal);
+        Long current = entriesByOrdinal.get(ordinal);
+
+        if (current != null && current == entry) {
+            bookOrdinals.release(ordinal);
+            return;
+        }
+
+        evict(ordinal);
+        insert(entry);
+        entriesByOrdinal.put(ordinal, entry);
+    }
+
+    private void updateAll(Map<UUID, Long> changes) {
+        if (pending != null) {
+            pending.putAll(changes);
+        }
+
+        Set<Long> evicted = new HashSet<>();
+        long[] added = new long[changes.size()];
+        int addedCount = 0;
+
+        for (Map.Entry<UUID, Long> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                bookOrdinals.find(change.getKey()).ifPresent(ordinal -> release(ordinal, evicted));
+                continue;
+            }
+
+            int ordinal = bookOrdinals.acquire(change.getKey());
+            long entry = entry(change.getValue(), ordinal);
+            Long current = entriesByOrdinal.get(ordinal);
+
+            if (current != null && current == entry) {
+                bookOrdinals.release(ordinal);
+                continue;
+            }
+
+            release(ordinal, evicted);
+            added[addedCount++] = entry;
+            entriesByOrdinal.put(ordinal, entry);
+        }
+
+        Arrays.sort(added, 0, addedCount);
+
+        long[] merged = new long[Math.max(entries.length, size - evicted.size() + addedCount)];
+        int count = 0;
+
+        for (int i = 0, j = 0; i < size || j < addedCount; ) {
+            if (i < size && evicted.contains(entries[i])) {
+                i++;
+            } else if (j == addedCount || (i < size && entries[i] < added[j])) {
+                merged[count++] = entries[i++];
+            } else {
+                merged[count++] = added[j++];
+            }
+        }
+
+        entries = merged;
+        size = count;
+    }
+
+    private void release(int ordinal, Set<Long> evicted) {
+        Long entry = entriesByOrdinal.remove(ordinal);
+
+        if (entry != null) {
+            evicted.add(entry);
+            bookOrdinals.release(ordinal);
+        }
+    }
+
+    private void setPending(Map<UUID, Long> changes) {
+        lock.writeLock().lock();
+        try {
+            pending = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int search(long key) {
+        int position = Arrays.binarySearch(entries, 0, size, key);
+
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private void insert(long entry) {
+        int position = search(entry);
+
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+
+        System.arraycopy(entries, position, entries, position + 1, size - position);
+        entries[position] = entry;
+        size++;
+    }
+
+    private void evict(int ordinal) {
+        Long entry = entriesByOrdinal.remove(ordinal);
+
+        if (entry == null) {
+            return;
+        }
+
+        int position = Arrays.binarySearch(entries, 0, size, entry);
+
+        if (position >= 0) {
+            System.arraycopy(entries, position + 1, entries, position, size - position - 1);
+            size--;
+        }
+
+        bookOrdinals.release(ordinal);
+    }
+
+    private static Long indexableCents(UUID id, double price) {
+        long cents = toCents(price);
+
+        if (cents < 0 || cents > MAX_CENTS) {
+            logger.warn("Not indexing price {} of book #{}, it is outside 0 to {} cents", price, id, MAX_CENTS);
+            return null;
+        }
+
+        return cents;
+    }
+
+    private static long entry(long cents, int ordinal) {
+        return (cents << 32) | (ordinal & ORDINAL_MASK);
+    }
+
+    private static int ordinal(long entry) {
+        return (int) (entry & ORDINAL_MASK);
+    }
+
+    public record Result(List<UUID> ids, long total) {
+    }
+}
@@ -0,0 +1,251 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.records.BookTitle;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class TitleIndex {
+    private static final int GRAM_SIZE = 3;
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, String> titles = new HashMap<>();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private Map<UUID, String> pending;
+
+    public TitleIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        setPending(new LinkedHashMap<>());
+
+        List<BookTitle> books;
+
+        try {
+            books = bookRepository.findAllTitles();
+        } catch (RuntimeException exception) {
+            setPending(null);
+            throw exception;
+        }
+
+        lock.writeLock().lock();
+        try {
+            titles.clear();
+            postings.clear();
+            books.forEach(book -> put(book.id(), book.title()));
+
+            pending.forEach((id, title) -> {
+                evict(id);
+
+                if (title != null) {
+                    put(id, title);
+                }
+            });
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.entity() instanceof BookEntity book)) {
+            return;
+        }
+
+        if (event.remote()) {
+            refresh(List.of(book.getId()));
+        } else if (event.action() == EntityChangedEvent.Action.DELETED) {
+            remove(book.getId());
+        } else {
+            index(book.getId(), book.getTitle());
+        }
+    }
+
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (event.remote()) {
+            refresh(event.books().stream().map(BookEntity::getId).toList());
+            return;
+        }
+
+        boolean deleted = event.action() == EntityChangedEvent.Action.DELETED;
+
+        lock.writeLock().lock();
+        try {
+            event.books().forEach(book -> update(book.getId(), deleted ? null : book.getTitle()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onBooksDeleted(BooksDeletedEvent event) {
+        rebuild();
+    }
+
+    public void index(UUID id, String title) {
+        lock.writeLock().lock();
+        try {
+            update(id, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void refresh(Collection<UUID> ids) {
+        Map<UUID, String> changes = new LinkedHashMap<>();
+        ids.forEach(id -> changes.put(id, null));
+        bookRepository.findAllTitlesByIdIn(ids).forEach(book -> changes.put(book.id(), book.title()));
+
+        lock.writeLock().lock();
+        try {
+            changes.forEach(this::update);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            update(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<UUID> search(String query, int limit) {
+        String normalizedQuery = TextNormalizer.normalize(query);
+
+        if (normalizedQuery.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return candidates(normalizedQuery).stream()
+                    .filter(id -> titles.get(id).contains(normalizedQuery))
+                    .sorted(ranking(normalizedQuery))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setPending(Map<UUID, String> changes) {
+        lock.writeLock().lock();
+        try {
+            pending = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void update(UUID id, String title) {
+        evict(id);
+
+        if (title != null) {
+            put(id, title);
+        }
+
+        if (pending != null) {
+            pending.put(id, title);
+        }
+    }
+
+    private void put(UUID id, String title) {
+        String normalizedTitle = TextNormalizer.normalize(title);
+
+        titles.put(id, normalizedTitle);
+        grams(normalizedTitle).forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id));
+    }
+
+    private void evict(UUID id) {
+        String normalizedTitle = titles.remove(id);
+
+        if (normalizedTitle == null) {
+            return;
+        }
+
+        for (String gram : grams(normalizedTitle)) {
+            Set<UUID> posting = postings.get(gram);
+            posting.remove(id);
+
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private Collection<UUID> candidates(String normalizedQuery) {
+        List<Set<UUID>> matchingPostings = new ArrayList<>();
+
+        for (String gram : grams(normalizedQuery, Math.min(GRAM_SIZE, normalizedQuery.length()))) {
+            Set<UUID> posting = postings.get(gram);
+
+            if (posting == null) {
+                return List.of();
+            }
+
+            matchingPostings.add(posting);
+        }
+
+        matchingPostings.sort(Comparator.comparingInt(Set::size));
+
+        Set<UUID> candidates = new HashSet<>(matchingPostings.get(0));
+        for (int i = 1; i < matchingPostings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(matchingPostings.get(i));
+        }
+
+        return candidates;
+    }
+
+    private Comparator<UUID> ranking(String normalizedQuery) {
+        return Comparator.<UUID>comparingInt(id -> matchRank(titles.get(id), normalizedQuery))
+                .thenComparingInt(id -> titles.get(id).length())
+                .thenComparing(titles::get);
+    }
+
+    private static int matchRank(String normalizedTitle, String normalizedQuery) {
+        if (normalizedTitle.startsWith(normalizedQuery)) {
+            return 0;
+        }
+
+        return normalizedTitle.contains(" " + normalizedQuery) ? 1 : 2;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+
+        for (int size = 1; size <= GRAM_SIZE; size++) {
+            grams.addAll(grams(text, size));
+        }
+
+        return grams;
+    }
+
+    private static Set<String> grams(String text, int size) {
+        Set<String> grams = new HashSet<>();
+
+        for (int i = 0; i + size <= text.length(); i++) {
+            grams.add(text.substring(i, i + size));
+        }
+
+        return grams;
+    }
+}
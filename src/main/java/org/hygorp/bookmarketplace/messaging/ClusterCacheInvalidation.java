@@ -0,0 +1,160 @@
+package org.hygorp.bookmarketplace.messaging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.Hibernate;
+import org.hygorp.bookmarketplace.cache.ReferenceCache;
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.events.StockReservedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class ClusterCacheInvalidation implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterCacheInvalidation.class);
+    private static final int MESSAGE_SIZE = 1000;
+
+    private final String node = UUID.randomUUID().toString();
+    private final AtomicLong sendFailures = new AtomicLong();
+    private final RabbitTemplate rabbitTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReferenceCache referenceCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, Class<?>> entityTypes;
+
+    public ClusterCacheInvalidation(
+            RabbitTemplate rabbitTemplate,
+            EntityManagerFactory entityManagerFactory,
+            ReferenceCache referenceCache,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.referenceCache = referenceCache;
+        this.eventPublisher = eventPublisher;
+        this.entityTypes = entityManagerFactory.getMetamodel().getEntities().stream()
+                .map(EntityType::getJavaType)
+                .collect(Collectors.toMap(Class::getName, Function.identity()));
+    }
+
+    public String node() {
+        return node;
+    }
+
+    public long sendFailures() {
+        return sendFailures.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cluster.invalidation.send.failures", sendFailures, AtomicLong::get).register(registry);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+
+        Object id = entityManagerFactory.getPersistenceUnitUtil().getIdentifier(event.entity());
+        send(new EntityChangedMessage(node, Hibernate.getClass(event.entity()).getName(), List.of((UUID) id), event.action()));
+    }
+
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+
+        List<UUID> ids = event.books().stream().map(BookEntity::getId).toList();
+
+        for (int i = 0; i < ids.size(); i += MESSAGE_SIZE) {
+            List<UUID> chunk = ids.subList(i, Math.min(i + MESSAGE_SIZE, ids.size()));
+            send(new EntityChangedMessage(node, BookEntity.class.getName(), List.copyOf(chunk), event.action()));
+        }
+    }
+
+    @EventListener
+    public void onBooksDeleted(BooksDeletedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+
+        send(new EntityChangedMessage(node, BookEntity.class.getName(), List.of(), EntityChangedEvent.Action.DELETED));
+    }
+
+    @EventListener
+    public void onStockReserved(StockReservedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+
+        send(new EntityChangedMessage(node, BookEntity.class.getName(), List.of(event.bookId()), EntityChangedEvent.Action.SAVED, event.stock()));
+    }
+
+    @RabbitListener(queues = "#{entityChangesQueue.name}")
+    public void onMessage(EntityChangedMessage message) {
+        Class<?> entityType = entityTypes.get(message.entity());
+
+        if (node.equals(message.node()) || entityType == null) {
+            return;
+        }
+
+        if (message.stock() != null) {
+            message.ids().forEach(id -> eventPublisher.publishEvent(new StockReservedEvent(id, message.stock(), true)));
+            return;
+        }
+
+        if (entityType == BookEntity.class && message.ids().isEmpty()) {
+            eventPublisher.publishEvent(new BooksDeletedEvent(null, null, true));
+            return;
+        }
+
+        message.ids().forEach(id -> referenceCache.evict(entityType, id));
+
+        if (entityType == BookEntity.class && message.ids().size() > 1) {
+            List<BookEntity> books = message.ids().stream().map(id -> (BookEntity) reference(BookEntity.class, id)).toList();
+            eventPublisher.publishEvent(new BooksChangedEvent(books, message.action(), true));
+            return;
+        }
+
+        message.ids().forEach(id -> eventPublisher.publishEvent(new EntityChangedEvent(reference(entityType, id), message.action(), true)));
+    }
+
+    private void send(EntityChangedMessage message) {
+        try {
+            rabbitTemplate.convertAndSend(MessagingConfiguration.ENTITY_CHANGES_EXCHANGE, "", message);
+        } catch (AmqpException exception) {
+            sendFailures.incrementAndGet();
+            logger.warn("Could not broadcast change of {} #{}", message.entity(), message.ids(), exception);
+        }
+    }
+
+    private Object reference(Class<?> entityType, UUID id) {
+        Object entity = BeanUtils.instantiateClass(entityType);
+        PropertyAccessorFactory.forBeanPropertyAccess(entity).setPropertyValue("id", id);
+
+        return entity;
+    }
+}
@@ -0,0 +1,12 @@
+package org.hygorp.bookmarketplace.messaging;
+
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+
+import java.util.List;
+import java.util.UUID;
+
+public record EntityChangedMessage(String node, String entity, List<UUID> ids, EntityChangedEvent.Action action, Integer stock) {
+    public EntityChangedMessage(String node, String entity, List<UUID> ids, EntityChangedEvent.Action action) {
+        this(node, entity, ids, action, null);
+    }
+}
@@ -0,0 +1,36 @@
+package org.hygorp.bookmarketplace.messaging;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MessagingConfiguration {
+    public static final String ENTITY_CHANGES_EXCHANGE = "book-marketplace.entity-changes";
+
+    @Bean
+    public FanoutExchange entityChangesExchange() {
+        return new FanoutExchange(ENTITY_CHANGES_EXCHANGE);
+    }
+
+    @Bean
+    public Queue entityChangesQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding entityChangesBinding(Queue entityChangesQueue, FanoutExchange entityChangesExchange) {
+        return BindingBuilder.bind(entityChangesQueue).to(entityChangesExchange);
+    }
+
+    @Bean
+    public MessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
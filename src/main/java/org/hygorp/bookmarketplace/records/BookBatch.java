@@ -0,0 +1,9 @@
+package org.hygorp.bookmarketplace.records;
+
+import org.hygorp.bookmarketplace.entities.BookEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BookBatch(List<BookEntity> books, List<UUID> missing) {
+}
@@ -0,0 +1,16 @@
+package org.hygorp.bookmarketplace.records;
+
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+
+import java.util.UUID;
+
+public record BookFacets(
+        UUID id,
+        Condition condition,
+        CoverType coverType,
+        Language language,
+        UUID publisherId
+) {
+}
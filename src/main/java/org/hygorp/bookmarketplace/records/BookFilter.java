@@ -0,0 +1,30 @@
+package org.hygorp.bookmarketplace.records;
+
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+
+import java.util.Set;
+import java.util.UUID;
+
+public record BookFilter(
+        Set<Condition> conditions,
+        Set<CoverType> coverTypes,
+        Set<Language> languages,
+        Set<UUID> genres,
+        Set<UUID> publishers,
+        Double minPrice,
+        Double maxPrice
+) {
+    public BookFilter {
+        conditions = conditions == null ? Set.of() : Set.copyOf(conditions);
+        coverTypes = coverTypes == null ? Set.of() : Set.copyOf(coverTypes);
+        languages = languages == null ? Set.of() : Set.copyOf(languages);
+        genres = genres == null ? Set.of() : Set.copyOf(genres);
+        publishers = publishers == null ? Set.of() : Set.copyOf(publishers);
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+}
@@ -0,0 +1,4 @@
+package org.hygorp.bookmarketplace.records;
+
+public record BookImportProgress(long processed, long imported, long failed, boolean done) {
+}
@@ -0,0 +1,21 @@
+package org.hygorp.bookmarketplace.records;
+
+import java.util.List;
+
+public record BookImportRow(
+        long row,
+        String title,
+        String description,
+        String publishedDate,
+        String isbn,
+        String image,
+        String price,
+        String stock,
+        String condition,
+        String coverType,
+        String language,
+        String publisher,
+        List<String> authors,
+        List<String> genres
+) {
+}
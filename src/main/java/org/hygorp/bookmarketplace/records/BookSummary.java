@@ -0,0 +1,43 @@
+package org.hygorp.bookmarketplace.records;
+
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+public record BookSummary(
+        UUID id,
+        String title,
+        Double price,
+        Condition condition,
+        CoverType coverType,
+        Language language,
+        List<String> authors,
+        String seller
+) {
+    public BookSummary(
+            UUID id,
+            String title,
+            Double price,
+            Condition condition,
+            CoverType coverType,
+            Language language,
+            String[] authors,
+            String seller
+    ) {
+        this(
+                id,
+                title,
+                price,
+                condition,
+                coverType,
+                language,
+                authors == null ? List.of() : Arrays.stream(authors).filter(Objects::nonNull).toList(),
+                seller
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package org.hygorp.bookmarketplace.records;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+public record BookVersion(
+        Long version,
+        Instant updatedAt,
+        Instant authorsUpdatedAt,
+        Instant genresUpdatedAt,
+        Instant publisherUpdatedAt,
+        Instant sellerUpdatedAt
+) {
+    public String etag() {
+        String fingerprint = String.join(":",
+                String.valueOf(version),
+                String.valueOf(updatedAt),
+                String.valueOf(authorsUpdatedAt),
+                String.valueOf(genresUpdatedAt),
+                String.valueOf(publisherUpdatedAt),
+                String.valueOf(sellerUpdatedAt)
+        );
+
+        return "\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public long lastModified() {
+        return Stream.of(updatedAt, authorsUpdatedAt, genresUpdatedAt, publisherUpdatedAt, sellerUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Instant::compareTo)
+                .map(Instant::toEpochMilli)
+                .orElse(-1L);
+    }
+}
@@ -0,0 +1,4 @@
+package org.hygorp.bookmarketplace.records;
+
+public record BulkDeletion(int deleted) {
+}
@@ -0,0 +1,26 @@
+package org.hygorp.bookmarketplace.records;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public record Cursor(String key, UUID id) {
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        String raw = id.toString() + SEPARATOR + key;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+
+        return new Cursor(raw.substring(separator + 1), UUID.fromString(raw.substring(0, separator)));
+    }
+}
@@ -0,0 +1,18 @@
+package org.hygorp.bookmarketplace.records;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> content, String next, Long totalElements) {
+    public static final int MAX_SIZE = 100;
+
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf, Long totalElements) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, totalElements);
+        }
+
+        List<T> content = List.copyOf(rows.subList(0, size));
+
+        return new CursorPage<>(content, cursorOf.apply(content.get(size - 1)).encode(), totalElements);
+    }
+}
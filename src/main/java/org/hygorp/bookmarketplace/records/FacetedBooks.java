@@ -0,0 +1,8 @@
+package org.hygorp.bookmarketplace.records;
+
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+public record FacetedBooks(Page<BookSummary> books, Map<String, Map<String, Integer>> facets) {
+}
@@ -0,0 +1,32 @@
+package org.hygorp.bookmarketplace.records;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public record ResourceVersion(
+        Long rows,
+        Long versions,
+        Instant updatedAt,
+        Instant relatedUpdatedAt
+) {
+    public String etag(Object... parts) {
+        String fingerprint = Stream.concat(Stream.of(rows, versions, updatedAt, relatedUpdatedAt), Stream.of(parts))
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+
+        return "\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public long lastModified() {
+        return Stream.of(updatedAt, relatedUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Instant::compareTo)
+                .map(Instant::toEpochMilli)
+                .orElse(-1L);
+    }
+}
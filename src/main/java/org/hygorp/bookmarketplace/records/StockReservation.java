@@ -0,0 +1,6 @@
+package org.hygorp.bookmarketplace.records;
+
+import java.util.UUID;
+
+public record StockReservation(UUID id, Integer stock, Long version) {
+}
@@ -2,11 +2,19 @@ package org.hygorp.bookmarketplace.repositories;
 
 import lombok.NonNull;
 import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.records.EntityId;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -15,6 +23,40 @@ public interface AuthorRepository extends JpaRepository<AuthorEntity, UUID> {
     @NonNull
     Page<AuthorEntity> findAll(@NonNull Pageable pageable);
 
+    @NonNull
+    List<AuthorEntity> findAllByOrderByNameAscIdAsc(@NonNull Limit limit);
+
+    @NonNull
+    @Query("select a from tb_author a where a.name > :name or (a.name = :name and a.id > :id) order by a.name, a.id")
+    List<AuthorEntity> findAllAfter(@NonNull String name, @NonNull UUID id, @NonNull Limit limit);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(a.id, a.name) from tb_author a")
+    List<Suggestion> findAllSuggestions();
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(a.id, a.name) from tb_author a where a.id in :ids")
+    List<Suggestion> findAllSuggestionsByIdIn(@NonNull Collection<UUID> ids);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(a.id, a.name) from tb_author a where lower(a.name) in :names")
+    List<Suggestion> findAllSuggestionsByLowerNameIn(@NonNull Collection<String> names);
+
     @NonNull
     Set<AuthorEntity> findAllByNameContainingIgnoreCase(@NonNull String name);
+
+    @NonNull
+    List<EntityId> findAllIdsByNameContainingIgnoreCase(@NonNull String name);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.ResourceVersion(
+                        count(b), a.version + coalesce(sum(b.version), 0), a.updatedAt, max(b.updatedAt)
+                    )
+                    from tb_author a
+                    left join a.books b
+                    where a.id = :id
+                    group by a.id, a.version, a.updatedAt
+                    """)
+    Optional<ResourceVersion> findVersionById(@NonNull UUID id);
 }
@@ -0,0 +1,10 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface BookBulkDeleteRepository {
+    int deleteAllBySellerId(UUID sellerId);
+
+    int deleteAllSoldOutUpdatedBefore(Instant before);
+}
@@ -0,0 +1,83 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class BookBulkDeleteRepositoryImpl implements BookBulkDeleteRepository {
+    private static final String[] TABLES = {"tb_book", "tb_book_author", "tb_book_genre", "tb_cart_items"};
+    private static final String BY_SELLER = "seller_id = :value";
+    private static final String SOLD_OUT_BEFORE = "stock = 0 and updated_at < :value";
+
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BookBulkDeleteRepositoryImpl(EntityManager entityManager, ApplicationEventPublisher eventPublisher) {
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllBySellerId(UUID sellerId) {
+        entityManager.createNativeQuery("select id from tb_seller where id = :sellerId for update")
+                .setParameter("sellerId", sellerId)
+                .getResultList();
+
+        return deleteAll(BY_SELLER, sellerId, new BooksDeletedEvent(sellerId, null));
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllSoldOutUpdatedBefore(Instant before) {
+        lockBooks(SOLD_OUT_BEFORE, before);
+
+        return deleteAll(SOLD_OUT_BEFORE, before, new BooksDeletedEvent(null, before));
+    }
+
+    private int deleteAll(String condition, Object value, BooksDeletedEvent event) {
+        String books = "select id from tb_book where " + condition;
+
+        execute("delete from tb_cart_items where item_id in (" + books + ")", value);
+        execute("delete from tb_book_author where book_id in (" + books + ")", value);
+        execute("delete from tb_book_genre where book_id in (" + books + ")", value);
+        int deleted = execute("delete from tb_book where " + condition, value);
+
+        if (deleted > 0) {
+            publishAfterCommit(event);
+        }
+
+        return deleted;
+    }
+
+    private void lockBooks(String condition, Object value) {
+        execute("update tb_book set stock = stock where " + condition, value);
+    }
+
+    private int execute(String sql, Object value) {
+        NativeQuery<?> statement = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        statement.setParameter("value", value);
+
+        for (String table : TABLES) {
+            statement.addSynchronizedQuerySpace(table);
+        }
+
+        return statement.executeUpdate();
+    }
+
+    private void publishAfterCommit(BooksDeletedEvent event) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(event);
+            }
+        });
+    }
+}
@@ -2,19 +2,203 @@ package org.hygorp.bookmarketplace.repositories;
 
 import lombok.NonNull;
 import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.records.BookFacets;
+import org.hygorp.bookmarketplace.records.BookGenre;
+import org.hygorp.bookmarketplace.records.BookIsbn;
+import org.hygorp.bookmarketplace.records.BookPrice;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.records.BookTitle;
+import org.hygorp.bookmarketplace.records.BookVersion;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.StockReservation;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface BookRepository extends JpaRepository<BookEntity, UUID> {
+public interface BookRepository extends JpaRepository<BookEntity, UUID>, BookSearchRepository, BookBulkDeleteRepository {
     @NonNull
     Page<BookEntity> findAll(@NonNull Pageable pageable);
 
+    @NonNull
+    @Query(
+            value = """
+                    select new org.hygorp.bookmarketplace.records.BookSummary(
+                        b.id, b.title, b.price, b.condition, b.coverType, b.language, array_agg(a.name) within group (order by a.name), s.name
+                    )
+                    from tb_book b
+                    left join b.authors a
+                    left join b.seller s
+                    group by b.id, b.title, b.price, b.condition, b.coverType, b.language, s.name
+                    """,
+            countQuery = "select count(b) from tb_book b"
+    )
+    Page<BookSummary> findAllSummaries(@NonNull Pageable pageable);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.BookSummary(
+                        b.id, b.title, b.price, b.condition, b.coverType, b.language, array_agg(a.name) within group (order by a.name), s.name
+                    )
+                    from tb_book b
+                    left join b.authors a
+                    left join b.seller s
+                    where b.id in (
+                        select p.id from tb_book p
+                        order by p.title, p.id
+                        limit :limit
+                    )
+                    group by b.id, b.title, b.price, b.condition, b.coverType, b.language, s.name
+                    order by b.title, b.id
+                    """)
+    List<BookSummary> findAllSummariesOrderByTitle(int limit);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.BookSummary(
+                        b.id, b.title, b.price, b.condition, b.coverType, b.language, array_agg(a.name) within group (order by a.name), s.name
+                    )
+                    from tb_book b
+                    left join b.authors a
+                    left join b.seller s
+                    where b.id in (
+                        select p.id from tb_book p
+                        where (p.title, p.id) > (:title, :id)
+                        order by p.title, p.id
+                        limit :limit
+                    )
+                    group by b.id, b.title, b.price, b.condition, b.coverType, b.language, s.name
+                    order by b.title, b.id
+                    """)
+    List<BookSummary> findAllSummariesAfter(@NonNull String title, @NonNull UUID id, int limit);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.BookSummary(
+                        b.id, b.title, b.price, b.condition, b.coverType, b.language, array_agg(a.name) within group (order by a.name), s.name
+                    )
+                    from tb_book b
+                    left join b.authors a
+                    left join b.seller s
+                    where b.id in :ids
+                    group by b.id, b.title, b.price, b.condition, b.coverType, b.language, s.name
+                    """)
+    List<BookSummary> findAllSummariesByIdIn(@NonNull Collection<UUID> ids);
+
+    @NonNull
+    @Query(
+            value = """
+                    select new org.hygorp.bookmarketplace.records.BookSummary(
+                        b.id, b.title, b.price, b.condition, b.coverType, b.language, array_agg(a.name) within group (order by a.name), s.name
+                    )
+                    from tb_book b
+                    left join b.authors a
+                    join b.seller s
+                    where s.id = :sellerId
+                    group by b.id, b.title, b.price, b.condition, b.coverType, b.language, s.name
+                    """,
+            countQuery = "select count(b) from tb_book b where b.seller.id = :sellerId"
+    )
+    Page<BookSummary> findAllSummariesBySellerId(@NonNull UUID sellerId, @NonNull Pageable pageable);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.BookVersion(
+                        b.version, b.updatedAt, max(a.updatedAt), max(g.updatedAt), p.updatedAt, s.updatedAt
+                    )
+                    from tb_book b
+                    left join b.authors a
+                    left join b.genres g
+                    left join b.publisher p
+                    left join b.seller s
+                    where b.id = :id
+                    group by b.version, b.updatedAt, p.updatedAt, s.updatedAt
+                    """)
+    Optional<BookVersion> findVersionById(@NonNull UUID id);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.ResourceVersion(
+                        count(b), coalesce(sum(b.version), 0), max(b.updatedAt),
+                        greatest((select max(a.updatedAt) from tb_author a), (select max(s.updatedAt) from tb_seller s))
+                    )
+                    from tb_book b
+                    """)
+    ResourceVersion findCatalogVersion();
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.BookTitle(b.id, b.title) from tb_book b")
+    List<BookTitle> findAllTitles();
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.BookTitle(b.id, b.title) from tb_book b where b.id in :ids")
+    List<BookTitle> findAllTitlesByIdIn(@NonNull Collection<UUID> ids);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.BookIsbn(b.id, b.isbn) from tb_book b")
+    List<BookIsbn> findAllIsbns();
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.BookIsbn(b.id, b.isbn) from tb_book b where b.id in :ids")
+    List<BookIsbn> findAllIsbnsByIdIn(@NonNull Collection<UUID> ids);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.BookPrice(b.id, b.price) from tb_book b")
+    List<BookPrice> findAllPrices();
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.BookPrice(b.id, b.price) from tb_book b where b.id in :ids")
+    List<BookPrice> findAllPricesByIdIn(@NonNull Collection<UUID> ids);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.BookFacets(b.id, b.condition, b.coverType, b.language, p.id)
+                    from tb_book b
+                    left join b.publisher p
+                    """)
+    List<BookFacets> findAllFacets();
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.BookFacets(b.id, b.condition, b.coverType, b.language, p.id)
+                    from tb_book b
+                    left join b.publisher p
+                    where b.id in :ids
+                    """)
+    List<BookFacets> findAllFacetsByIdIn(@NonNull Collection<UUID> ids);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.BookGenre(b.id, g.id) from tb_book b join b.genres g")
+    List<BookGenre> findAllGenreLinks();
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.BookGenre(b.id, g.id) from tb_book b join b.genres g where b.id in :ids")
+    List<BookGenre> findAllGenreLinksByBookIdIn(@NonNull Collection<UUID> ids);
+
     @NonNull
     Set<BookEntity> findAllByTitleContainingIgnoreCase(@NonNull String title);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                    update tb_book b
+                    set b.stock = b.stock - :quantity, b.version = b.version + 1, b.updatedAt = :updatedAt
+                    where b.id = :id and b.stock >= :quantity
+                    """)
+    int decrementStock(@NonNull UUID id, int quantity, @NonNull Instant updatedAt);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.StockReservation(b.id, b.stock, b.version) from tb_book b where b.id = :id")
+    Optional<StockReservation> findStockById(@NonNull UUID id);
 }
@@ -0,0 +1,10 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+public interface BookSearchRepository {
+    Page<UUID> searchIds(String query, Pageable pageable);
+}
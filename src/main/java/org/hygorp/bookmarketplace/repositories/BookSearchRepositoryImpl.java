@@ -0,0 +1,99 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+public class BookSearchRepositoryImpl implements BookSearchRepository {
+    private static final String NATIVE_MATCH = "b.search_vector @@ websearch_to_tsquery('simple', :query)";
+
+    private final EntityManager entityManager;
+    private final FullTextSearchSchema fullTextSearchSchema;
+
+    public BookSearchRepositoryImpl(EntityManager entityManager, FullTextSearchSchema fullTextSearchSchema) {
+        this.entityManager = entityManager;
+        this.fullTextSearchSchema = fullTextSearchSchema;
+    }
+
+    @Override
+    public Page<UUID> searchIds(String query, Pageable pageable) {
+        return fullTextSearchSchema.isNativeFullTextSearch()
+                ? searchNative(query, pageable)
+                : searchPortable(query, pageable);
+    }
+
+    private Page<UUID> searchNative(String query, Pageable pageable) {
+        Query ids = entityManager.createNativeQuery(
+                "select b.id from tb_book b where " + NATIVE_MATCH
+                        + " order by ts_rank(b.search_vector, websearch_to_tsquery('simple', :query)) desc, b.id",
+                UUID.class
+        );
+        Query count = entityManager.createNativeQuery("select count(*) from tb_book b where " + NATIVE_MATCH);
+
+        ids.setParameter("query", query);
+        count.setParameter("query", query);
+
+        return page(ids, count, pageable);
+    }
+
+    private Page<UUID> searchPortable(String query, Pageable pageable) {
+        List<String> terms = Arrays.stream(query.toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(term -> !term.isBlank())
+                .toList();
+
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        StringJoiner score = new StringJoiner(" + ");
+        StringJoiner match = new StringJoiner(" and ");
+
+        for (int i = 0; i < terms.size(); i++) {
+            String title = "lower(b.title) like :term" + i + " escape '\\'";
+            String author = "exists (select 1 from b.authors a where lower(a.name) like :term" + i + " escape '\\')";
+            String description = "lower(b.description) like :term" + i + " escape '\\'";
+
+            score.add("case when " + title + " then 4 else 0 end");
+            score.add("case when " + author + " then 2 else 0 end");
+            score.add("case when " + description + " then 1 else 0 end");
+            match.add("(" + title + " or " + author + " or " + description + ")");
+        }
+
+        Query ids = entityManager.createQuery(
+                "select b.id, " + score + " as score from tb_book b where " + match + " order by score desc, b.id"
+        );
+        Query count = entityManager.createQuery("select count(b) from tb_book b where " + match);
+
+        Consumer<Query> bindTerms = statement -> {
+            for (int i = 0; i < terms.size(); i++) {
+                statement.setParameter("term" + i, "%" + escapeLike(terms.get(i)) + "%");
+            }
+        };
+        bindTerms.accept(ids);
+        bindTerms.accept(count);
+
+        Page<Object[]> rows = page(ids, count, pageable);
+
+        return rows.map(row -> (UUID) row[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Page<T> page(Query content, Query count, Pageable pageable) {
+        content.setFirstResult((int) pageable.getOffset());
+        content.setMaxResults(pageable.getPageSize());
+
+        List<T> rows = content.getResultList();
+        long total = ((Number) count.getSingleResult()).longValue();
+
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,29 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@DependsOn("entityManagerFactory")
+public class BookTimestampSchema {
+    private static final Logger logger = LoggerFactory.getLogger(BookTimestampSchema.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookTimestampSchema(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        int backfilled = jdbcTemplate.update("update tb_book set updated_at = current_timestamp where updated_at is null");
+
+        if (backfilled > 0) {
+            logger.info("Backfilled update timestamps for {} books", backfilled);
+        }
+    }
+}
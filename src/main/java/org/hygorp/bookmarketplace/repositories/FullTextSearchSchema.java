@@ -0,0 +1,105 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@DependsOn("entityManagerFactory")
+public class FullTextSearchSchema {
+    private static final List<String> POSTGRESQL_STATEMENTS = List.of(
+            "alter table tb_book add column if not exists search_vector tsvector",
+            """
+            create or replace function tb_book_search_vector(uuid, text, text) returns tsvector
+            language sql stable as $$
+                select setweight(to_tsvector('simple', coalesce($2, '')), 'A')
+                    || setweight(to_tsvector('simple', coalesce((
+                        select string_agg(a.name, ' ')
+                        from tb_book_author ba
+                        join tb_author a on a.id = ba.author_id
+                        where ba.book_id = $1
+                    ), '')), 'B')
+                    || setweight(to_tsvector('simple', coalesce($3, '')), 'C')
+            $$
+            """,
+            """
+            create or replace function tb_book_search_vector_on_book() returns trigger
+            language plpgsql as $$
+            begin
+                new.search_vector := tb_book_search_vector(new.id, new.title, new.description);
+                return new;
+            end
+            $$
+            """,
+            """
+            create or replace function tb_book_search_vector_on_book_author() returns trigger
+            language plpgsql as $$
+            begin
+                update tb_book b
+                set search_vector = tb_book_search_vector(b.id, b.title, b.description)
+                where b.id = case when tg_op = 'DELETE' then old.book_id else new.book_id end;
+                return null;
+            end
+            $$
+            """,
+            """
+            create or replace function tb_book_search_vector_on_author() returns trigger
+            language plpgsql as $$
+            begin
+                update tb_book b
+                set search_vector = tb_book_search_vector(b.id, b.title, b.description)
+                where b.id in (select ba.book_id from tb_book_author ba where ba.author_id = new.id);
+                return null;
+            end
+            $$
+            """,
+            "drop trigger if exists tb_book_search_vector_on_book on tb_book",
+            """
+            create trigger tb_book_search_vector_on_book
+            before insert or update of title, description on tb_book
+            for each row execute function tb_book_search_vector_on_book()
+            """,
+            "drop trigger if exists tb_book_search_vector_on_book_author on tb_book_author",
+            """
+            create trigger tb_book_search_vector_on_book_author
+            after insert or delete on tb_book_author
+            for each row execute function tb_book_search_vector_on_book_author()
+            """,
+            "drop trigger if exists tb_book_search_vector_on_author on tb_author",
+            """
+            create trigger tb_book_search_vector_on_author
+            after update of name on tb_author
+            for each row execute function tb_book_search_vector_on_author()
+            """,
+            "create index if not exists idx_book_search_vector on tb_book using gin (search_vector)",
+            "update tb_book set search_vector = tb_book_search_vector(id, title, description) where search_vector is null"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private boolean nativeFullTextSearch;
+
+    public FullTextSearchSchema(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        String databaseProductName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+        );
+
+        nativeFullTextSearch = "PostgreSQL".equalsIgnoreCase(databaseProductName);
+
+        if (nativeFullTextSearch) {
+            POSTGRESQL_STATEMENTS.forEach(jdbcTemplate::execute);
+        }
+    }
+
+    public boolean isNativeFullTextSearch() {
+        return nativeFullTextSearch;
+    }
+}
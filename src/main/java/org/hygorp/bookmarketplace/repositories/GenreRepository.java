@@ -2,11 +2,19 @@ package org.hygorp.bookmarketplace.repositories;
 
 import lombok.NonNull;
 import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.records.EntityId;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -15,6 +23,40 @@ public interface GenreRepository extends JpaRepository<GenreEntity, UUID> {
     @NonNull
     Page<GenreEntity> findAll(@NonNull Pageable pageable);
 
+    @NonNull
+    List<GenreEntity> findAllByOrderByNameAscIdAsc(@NonNull Limit limit);
+
+    @NonNull
+    @Query("select g from tb_genre g where g.name > :name or (g.name = :name and g.id > :id) order by g.name, g.id")
+    List<GenreEntity> findAllAfter(@NonNull String name, @NonNull UUID id, @NonNull Limit limit);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(g.id, g.name) from tb_genre g")
+    List<Suggestion> findAllSuggestions();
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(g.id, g.name) from tb_genre g where g.id in :ids")
+    List<Suggestion> findAllSuggestionsByIdIn(@NonNull Collection<UUID> ids);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(g.id, g.name) from tb_genre g where lower(g.name) in :names")
+    List<Suggestion> findAllSuggestionsByLowerNameIn(@NonNull Collection<String> names);
+
     @NonNull
     Set<GenreEntity> findAllByNameContainingIgnoreCase(@NonNull String genreName);
+
+    @NonNull
+    List<EntityId> findAllIdsByNameContainingIgnoreCase(@NonNull String genreName);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.ResourceVersion(
+                        count(b), g.version + coalesce(sum(b.version), 0), g.updatedAt, max(b.updatedAt)
+                    )
+                    from tb_genre g
+                    left join g.books b
+                    where g.id = :id
+                    group by g.id, g.version, g.updatedAt
+                    """)
+    Optional<ResourceVersion> findVersionById(@NonNull UUID id);
 }
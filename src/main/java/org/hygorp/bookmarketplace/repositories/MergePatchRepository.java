@@ -0,0 +1,170 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.*;
+
+@Repository
+public class MergePatchRepository {
+    public static final String MEDIA_TYPE_VALUE = "application/merge-patch+json";
+
+    private static final String VERSION = "version";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public MergePatchRepository(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public static Long expectedVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+
+        if (tag.equals("*")) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(tag.startsWith("\"") && tag.endsWith("\"") && tag.length() > 1 ? tag.substring(1, tag.length() - 1) : tag);
+        } catch (NumberFormatException exception) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    @Transactional
+    public <T> Optional<T> patch(Class<T> type, UUID id, Long expectedVersion, JsonNode patch, Set<String> fields) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+
+        patch.fieldNames().forEachRemaining(name -> {
+            if (!fields.contains(name)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + name);
+            }
+        });
+
+        T entity = entityManager.find(type, id);
+
+        if (entity == null) {
+            return Optional.empty();
+        }
+
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+
+        if (expectedVersion != null && !expectedVersion.equals(wrapper.getPropertyValue(VERSION))) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+
+        EntityType<T> entityType = entityManager.getMetamodel().entity(type);
+        ObjectNode scalars = objectMapper.createObjectNode();
+
+        for (Iterator<Map.Entry<String, JsonNode>> iterator = patch.fields(); iterator.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = iterator.next();
+            Attribute<? super T, ?> attribute = entityType.getAttribute(field.getKey());
+
+            if (attribute instanceof PluralAttribute<? super T, ?, ?> plural) {
+                replace(wrapper, plural, field.getValue());
+            } else if (attribute.isAssociation()) {
+                wrapper.setPropertyValue(attribute.getName(), reference(attribute.getJavaType(), attribute.getName(), field.getValue()));
+            } else {
+                if (field.getValue().isNull() && !nullable(attribute)) {
+                    throw new IllegalArgumentException(attribute.getName() + " must not be null");
+                }
+
+                scalars.set(attribute.getName(), field.getValue());
+            }
+        }
+
+        try {
+            objectMapper.readerForUpdating(entity).readValue(scalars);
+        } catch (IOException exception) {
+            throw new IllegalArgumentException("Invalid merge patch: " + exception.getMessage());
+        }
+
+        entityManager.flush();
+
+        return Optional.of(entity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replace(BeanWrapper wrapper, PluralAttribute<?, ?, ?> attribute, JsonNode value) {
+        if (joinTable(attribute) == null) {
+            throw new IllegalArgumentException("Field cannot be patched: " + attribute.getName());
+        }
+
+        List<?> targets = value.isNull() ? List.of() : find(attribute.getElementType().getJavaType(), attribute.getName(), value);
+        Collection<Object> collection = (Collection<Object>) wrapper.getPropertyValue(attribute.getName());
+
+        collection.retainAll(targets);
+        collection.addAll(targets);
+    }
+
+    private Object reference(Class<?> type, String name, JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+
+        return find(type, name, objectMapper.createArrayNode().add(value)).get(0);
+    }
+
+    private <E> List<E> find(Class<E> type, String name, JsonNode values) {
+        if (!values.isArray()) {
+            throw new IllegalArgumentException(name + " must be an array");
+        }
+
+        Set<UUID> ids = new LinkedHashSet<>();
+
+        for (JsonNode value : values) {
+            JsonNode id = value.isObject() ? value.get("id") : value;
+
+            try {
+                ids.add(UUID.fromString(id.asText()));
+            } catch (NullPointerException | IllegalArgumentException exception) {
+                throw new IllegalArgumentException("Invalid " + name + " id: " + value);
+            }
+        }
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<E> found = entityManager.createQuery(
+                        "select x from " + entityManager.getMetamodel().entity(type).getName() + " x where x.id in :ids",
+                        type
+                )
+                .setParameter("ids", ids)
+                .getResultList();
+
+        if (found.size() != ids.size()) {
+            throw new IllegalArgumentException("Unknown " + name + " id in: " + values);
+        }
+
+        return found;
+    }
+
+    private static boolean nullable(Attribute<?, ?> attribute) {
+        Column column = ((Field) attribute.getJavaMember()).getAnnotation(Column.class);
+
+        return column == null || column.nullable();
+    }
+
+    private static JoinTable joinTable(PluralAttribute<?, ?, ?> attribute) {
+        return ((Field) attribute.getJavaMember()).getAnnotation(JoinTable.class);
+    }
+}
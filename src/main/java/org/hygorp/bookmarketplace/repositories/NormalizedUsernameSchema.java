@@ -0,0 +1,40 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@DependsOn("entityManagerFactory")
+public class NormalizedUsernameSchema {
+    private static final Logger logger = LoggerFactory.getLogger(NormalizedUsernameSchema.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NormalizedUsernameSchema(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        List<String> collisions = jdbcTemplate.queryForList(
+                "select lower(username) from tb_user group by lower(username) having count(*) > 1 order by 1",
+                String.class
+        );
+
+        if (!collisions.isEmpty()) {
+            throw new IllegalStateException("Usernames differ only by case and cannot be normalized: " + collisions);
+        }
+
+        int backfilled = jdbcTemplate.update("update tb_user set normalized_username = lower(username) where normalized_username is null");
+
+        if (backfilled > 0) {
+            logger.info("Backfilled normalized usernames for {} users", backfilled);
+        }
+    }
+}
@@ -2,11 +2,19 @@ package org.hygorp.bookmarketplace.repositories;
 
 import lombok.NonNull;
 import org.hygorp.bookmarketplace.entities.PublisherEntity;
+import org.hygorp.bookmarketplace.records.EntityId;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -15,6 +23,40 @@ public interface PublisherRepository extends JpaRepository<PublisherEntity, UUID
     @NonNull
     Page<PublisherEntity> findAll(@NonNull Pageable pageable);
 
+    @NonNull
+    List<PublisherEntity> findAllByOrderByNameAscIdAsc(@NonNull Limit limit);
+
+    @NonNull
+    @Query("select p from tb_publisher p where p.name > :name or (p.name = :name and p.id > :id) order by p.name, p.id")
+    List<PublisherEntity> findAllAfter(@NonNull String name, @NonNull UUID id, @NonNull Limit limit);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(p.id, p.name) from tb_publisher p")
+    List<Suggestion> findAllSuggestions();
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(p.id, p.name) from tb_publisher p where p.id in :ids")
+    List<Suggestion> findAllSuggestionsByIdIn(@NonNull Collection<UUID> ids);
+
+    @NonNull
+    @Query("select new org.hygorp.bookmarketplace.records.Suggestion(p.id, p.name) from tb_publisher p where lower(p.name) in :names")
+    List<Suggestion> findAllSuggestionsByLowerNameIn(@NonNull Collection<String> names);
+
     @NonNull
     Set<PublisherEntity> findAllByNameContainingIgnoreCase(@NonNull String name);
+
+    @NonNull
+    List<EntityId> findAllIdsByNameContainingIgnoreCase(@NonNull String name);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.ResourceVersion(
+                        count(b), p.version + coalesce(sum(b.version), 0), p.updatedAt, max(b.updatedAt)
+                    )
+                    from tb_publisher p
+                    left join p.books b
+                    where p.id = :id
+                    group by p.id, p.version, p.updatedAt
+                    """)
+    Optional<ResourceVersion> findVersionById(@NonNull UUID id);
 }
@@ -2,11 +2,19 @@ package org.hygorp.bookmarketplace.repositories;
 
 import lombok.NonNull;
 import org.hygorp.bookmarketplace.entities.SellerEntity;
+import org.hygorp.bookmarketplace.records.EntityId;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Seller;
+import org.hygorp.bookmarketplace.records.SellerLinks;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -15,6 +23,78 @@ public interface SellerRepository extends JpaRepository<SellerEntity, UUID> {
     @NonNull
     Page<SellerEntity> findAll(@NonNull Pageable pageable);
 
+    @NonNull
+    @Query(
+            value = """
+                    select new org.hygorp.bookmarketplace.records.Seller(
+                        s.id, s.name, s.phone, s.logo, a,
+                        (select count(b) from tb_book b where b.seller = s),
+                        (select count(b) from tb_book b where b.seller = s and b.stock > 0),
+                        (select min(b.price) from tb_book b where b.seller = s)
+                    )
+                    from tb_seller s
+                    left join s.address a
+                    """,
+            countQuery = "select count(s) from tb_seller s"
+    )
+    Page<Seller> findAllSellers(@NonNull Pageable pageable);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.Seller(
+                        s.id, s.name, s.phone, s.logo, a,
+                        (select count(b) from tb_book b where b.seller = s),
+                        (select count(b) from tb_book b where b.seller = s and b.stock > 0),
+                        (select min(b.price) from tb_book b where b.seller = s)
+                    )
+                    from tb_seller s
+                    left join s.address a
+                    order by s.name, s.id
+                    """)
+    List<Seller> findAllSellersOrderByName(@NonNull Limit limit);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.Seller(
+                        s.id, s.name, s.phone, s.logo, a,
+                        (select count(b) from tb_book b where b.seller = s),
+                        (select count(b) from tb_book b where b.seller = s and b.stock > 0),
+                        (select min(b.price) from tb_book b where b.seller = s)
+                    )
+                    from tb_seller s
+                    left join s.address a
+                    where s.name > :name or (s.name = :name and s.id > :id)
+                    order by s.name, s.id
+                    """)
+    List<Seller> findAllSellersAfter(@NonNull String name, @NonNull UUID id, @NonNull Limit limit);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.ResourceVersion(
+                        count(b), s.version + coalesce(sum(b.version), 0), greatest(s.updatedAt, coalesce(ad.updatedAt, s.updatedAt)),
+                        greatest(max(b.updatedAt), (select max(a.updatedAt) from tb_book ab join ab.authors a where ab.seller = s))
+                    )
+                    from tb_seller s
+                    left join s.address ad
+                    left join s.books b
+                    where s.id = :id
+                    group by s.id, s.version, s.updatedAt, ad.updatedAt
+                    """)
+    Optional<ResourceVersion> findBooksVersionById(@NonNull UUID id);
+
+    @NonNull
+    @Query("""
+                    select new org.hygorp.bookmarketplace.records.SellerLinks(s.id, c.id, a.id)
+                    from tb_seller s
+                    left join s.credentials c
+                    left join s.address a
+                    where s.id = :id
+                    """)
+    Optional<SellerLinks> findLinksById(@NonNull UUID id);
+
     @NonNull
     Set<SellerEntity> findAllByNameContainingIgnoreCase(@NonNull String name);
+
+    @NonNull
+    List<EntityId> findAllIdsByNameContainingIgnoreCase(@NonNull String name);
 }
@@ -11,4 +11,6 @@ import java.util.UUID;
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     Optional<UserEntity> findByUsernameIgnoreCase(@NonNull String username);
+
+    Optional<UserEntity> findByNormalizedUsername(@NonNull String normalizedUsername);
 }
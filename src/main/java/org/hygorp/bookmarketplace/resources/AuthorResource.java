@@ -1,14 +1,23 @@
 package org.hygorp.bookmarketplace.resources;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
 import org.hygorp.bookmarketplace.services.AuthorService;
 import org.hygorp.bookmarketplace.services.exceptions.AuthorServiceException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -28,10 +37,35 @@ public class AuthorResource {
         return ResponseEntity.status(HttpStatus.OK).body(pageableAuthors);
     }
 
+    @GetMapping("/find-all-by-cursor")
+    public ResponseEntity<CursorPage<AuthorEntity>> findAllByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal
+    ) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(authorService.findAll(cursor, size, withTotal));
+        } catch (AuthorServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @GetMapping("/find-by-id/{id}")
-    public ResponseEntity<AuthorEntity> findById(@PathVariable UUID id) {
+    public ResponseEntity<AuthorEntity> findById(@PathVariable UUID id, WebRequest request) {
         try {
-            return ResponseEntity.status(HttpStatus.OK).body(authorService.findById(id));
+            ResourceVersion version = authorService.findVersionById(id);
+
+            if (request.checkNotModified(version.etag(), version.lastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(version.etag());
+
+            if (version.lastModified() >= 0) {
+                response.lastModified(version.lastModified());
+            }
+
+            return response.body(authorService.findById(id));
         } catch (AuthorServiceException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
@@ -44,6 +78,18 @@ public class AuthorResource {
         return ResponseEntity.status(HttpStatus.OK).body(authors);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam(name = "prefix") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(authorService.suggest(prefix, limit));
+        } catch (AuthorServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @PostMapping("/save")
     public ResponseEntity<AuthorEntity> save(@RequestBody AuthorEntity author) {
         try {
@@ -66,6 +112,27 @@ public class AuthorResource {
         }
     }
 
+    @PatchMapping(value = "/update/{id}", consumes = MergePatchRepository.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Void> patch(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch
+    ) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+
+        try {
+            authorService.patch(id, MergePatchRepository.expectedVersion(ifMatch), patch);
+
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (AuthorServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<AuthorEntity> delete(@PathVariable UUID id) {
         try {
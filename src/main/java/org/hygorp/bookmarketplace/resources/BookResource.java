@@ -1,14 +1,46 @@
 package org.hygorp.bookmarketplace.resources;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hygorp.bookmarketplace.cache.StaleWhileRevalidateCache;
 import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.imports.BookRowReader;
+import org.hygorp.bookmarketplace.records.BookBatch;
+import org.hygorp.bookmarketplace.records.BookFilter;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.records.BookVersion;
+import org.hygorp.bookmarketplace.records.BulkDeletion;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.FacetedBooks;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.StockReservation;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
+import org.hygorp.bookmarketplace.services.BookImportService;
 import org.hygorp.bookmarketplace.services.BookService;
+import org.hygorp.bookmarketplace.services.exceptions.BookConflictException;
 import org.hygorp.bookmarketplace.services.exceptions.BookServiceException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -16,32 +48,145 @@ import java.util.UUID;
 @RequestMapping("/api/v1/books")
 public class BookResource {
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
 
-    public BookResource(BookService bookService) {
+    public BookResource(BookService bookService, BookImportService bookImportService, ObjectMapper objectMapper) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/find-all")
-    public ResponseEntity<Page<BookEntity>> findAll(Pageable pageable) {
-        Page<BookEntity> pageableBooks = bookService.findAll(pageable);
+    public ResponseEntity<Page<BookSummary>> findAll(Pageable pageable, WebRequest request) {
+        ResourceVersion version = bookService.findCatalogVersion();
+        Page<BookSummary> pageableBooks = bookService.findAllSummaries(pageable);
 
-        return ResponseEntity.status(HttpStatus.OK).body(pageableBooks);
+        if (request.getAttribute(StaleWhileRevalidateCache.STALE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(pageableBooks);
+        }
+
+        String etag = version.etag(pageable);
+
+        if (request.checkNotModified(etag, version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+
+        if (version.lastModified() >= 0) {
+            response.lastModified(version.lastModified());
+        }
+
+        return response.body(pageableBooks);
+    }
+
+    @GetMapping("/find-all-by-cursor")
+    public ResponseEntity<CursorPage<BookSummary>> findAllByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal
+    ) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(bookService.findAllSummaries(cursor, size, withTotal));
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/find-by-id/{id}")
-    public ResponseEntity<BookEntity> findById(@PathVariable UUID id) {
+    public ResponseEntity<BookEntity> findById(@PathVariable UUID id, WebRequest request) {
         try {
-            return ResponseEntity.ok().body(bookService.findById(id));
+            BookVersion version = bookService.findVersionById(id);
+
+            if (request.checkNotModified(version.etag(), version.lastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(version.etag());
+
+            if (version.lastModified() >= 0) {
+                response.lastModified(version.lastModified());
+            }
+
+            return response.body(bookService.findById(id));
         } catch (BookServiceException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
+    @PostMapping("/find-by-ids")
+    public ResponseEntity<BookBatch> findByIds(@RequestBody List<UUID> ids) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(bookService.findAllByIds(ids));
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @GetMapping("/find-by-title")
-    public ResponseEntity<Set<BookEntity>> findByTitle(@RequestParam(value = "title") String title) {
-        Set<BookEntity> books = bookService.findByTitle(title);
+    public ResponseEntity<List<BookEntity>> findByTitle(
+            @RequestParam(value = "title") String title,
+            @RequestParam(value = "limit", defaultValue = "" + BookService.DEFAULT_SEARCH_LIMIT) int limit
+    ) {
+        try {
+            List<BookEntity> books = bookService.findByTitle(title, limit);
 
-        return ResponseEntity.status(HttpStatus.OK).body(books);
+            return ResponseEntity.status(HttpStatus.OK).body(books);
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/find-by-isbn")
+    public ResponseEntity<List<BookEntity>> findByIsbn(@RequestParam(value = "isbn") String isbn) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(bookService.findByIsbn(isbn));
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<BookSummary>> search(@RequestParam(value = "query") String query, Pageable pageable) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(bookService.search(query, pageable));
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/find-by-price")
+    public ResponseEntity<Page<BookSummary>> findByPrice(
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            Pageable pageable
+    ) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(bookService.findByPrice(minPrice, maxPrice, pageable));
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/browse")
+    public ResponseEntity<FacetedBooks> browse(
+            @RequestParam(value = "condition", required = false) Set<Condition> conditions,
+            @RequestParam(value = "coverType", required = false) Set<CoverType> coverTypes,
+            @RequestParam(value = "language", required = false) Set<Language> languages,
+            @RequestParam(value = "genre", required = false) Set<UUID> genres,
+            @RequestParam(value = "publisher", required = false) Set<UUID> publishers,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            Pageable pageable
+    ) {
+        try {
+            BookFilter filter = new BookFilter(conditions, coverTypes, languages, genres, publishers, minPrice, maxPrice);
+
+            return ResponseEntity.status(HttpStatus.OK).body(bookService.browse(filter, pageable));
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @PostMapping("/save")
@@ -55,12 +200,88 @@ public class BookResource {
         }
     }
 
+    @PostMapping(value = "/import", consumes = {BookRowReader.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importBooks(
+            @RequestParam(name = "sellerId", required = false) UUID sellerId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request
+    ) {
+        try {
+            bookImportService.requireSeller(sellerId);
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+
+        StreamingResponseBody body = output -> {
+            try (BookRowReader reader = BookRowReader.of(contentType, new InputStreamReader(request.getInputStream(), charset), objectMapper)) {
+                bookImportService.importBooks(reader, sellerId, line -> {
+                    try {
+                        output.write(objectMapper.writeValueAsBytes(line));
+                        output.write('\n');
+                        output.flush();
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PutMapping("/update/{id}")
     public ResponseEntity<BookEntity> update(@PathVariable UUID id, @RequestBody BookEntity book) {
         try {
             BookEntity updatedBook = bookService.update(id, book);
 
             return ResponseEntity.status(HttpStatus.OK).body(updatedBook);
+        } catch (BookConflictException | OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PatchMapping(value = "/update/{id}", consumes = MergePatchRepository.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Void> patch(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch
+    ) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+
+        try {
+            bookService.patch(id, MergePatchRepository.expectedVersion(ifMatch), patch);
+
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping("/reserve/{id}")
+    public ResponseEntity<StockReservation> reserve(@PathVariable UUID id, @RequestParam(value = "quantity", defaultValue = "1") int quantity) {
+        try {
+            StockReservation reservation = bookService.reserve(id, quantity);
+
+            return ResponseEntity.status(HttpStatus.OK).body(reservation);
+        } catch (BookConflictException exception) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (BookServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @DeleteMapping("/delete-sold-out")
+    public ResponseEntity<BulkDeletion> deleteSoldOut(@RequestParam(value = "olderThanDays") int olderThanDays) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(bookService.deleteSoldOut(olderThanDays));
         } catch (BookServiceException exception) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
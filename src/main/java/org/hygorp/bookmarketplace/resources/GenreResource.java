@@ -1,14 +1,23 @@
 package org.hygorp.bookmarketplace.resources;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
 import org.hygorp.bookmarketplace.services.GenreService;
 import org.hygorp.bookmarketplace.services.exceptions.GenreServiceException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -28,10 +37,35 @@ public class GenreResource {
         return ResponseEntity.status(HttpStatus.OK).body(pageableGenres);
     }
 
+    @GetMapping("/find-all-by-cursor")
+    public ResponseEntity<CursorPage<GenreEntity>> findAllByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal
+    ) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(genreService.findAll(cursor, size, withTotal));
+        } catch (GenreServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @GetMapping("/find-by-id/{id}")
-    public ResponseEntity<GenreEntity> findById(@PathVariable UUID id) {
+    public ResponseEntity<GenreEntity> findById(@PathVariable UUID id, WebRequest request) {
         try {
-            return ResponseEntity.status(HttpStatus.OK).body(genreService.findById(id));
+            ResourceVersion version = genreService.findVersionById(id);
+
+            if (request.checkNotModified(version.etag(), version.lastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(version.etag());
+
+            if (version.lastModified() >= 0) {
+                response.lastModified(version.lastModified());
+            }
+
+            return response.body(genreService.findById(id));
         } catch (GenreServiceException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
@@ -44,6 +78,18 @@ public class GenreResource {
         return ResponseEntity.status(HttpStatus.OK).body(genres);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam(name = "prefix") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(genreService.suggest(prefix, limit));
+        } catch (GenreServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @PostMapping("/save")
     public ResponseEntity<GenreEntity> save(@RequestBody GenreEntity genre) {
         try {
@@ -66,6 +112,27 @@ public class GenreResource {
         }
     }
 
+    @PatchMapping(value = "/update/{id}", consumes = MergePatchRepository.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Void> patch(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch
+    ) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+
+        try {
+            genreService.patch(id, MergePatchRepository.expectedVersion(ifMatch), patch);
+
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (GenreServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<GenreEntity> delete(@PathVariable UUID id) {
         try {
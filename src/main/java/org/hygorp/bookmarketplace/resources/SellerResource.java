@@ -1,13 +1,24 @@
 package org.hygorp.bookmarketplace.resources;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.records.BulkDeletion;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
 import org.hygorp.bookmarketplace.records.Seller;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
 import org.hygorp.bookmarketplace.services.SellerService;
+import org.hygorp.bookmarketplace.services.exceptions.SellerServiceException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/sellers")
@@ -24,4 +35,69 @@ public class SellerResource {
 
         return ResponseEntity.ok().body(sellers);
     }
+
+    @GetMapping("/find-all-by-cursor")
+    public ResponseEntity<CursorPage<Seller>> findAllByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal
+    ) {
+        try {
+            return ResponseEntity.ok().body(sellerService.findAll(cursor, size, withTotal));
+        } catch (SellerServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/{id}/books")
+    public ResponseEntity<Page<BookSummary>> findBooks(@PathVariable UUID id, Pageable pageable, WebRequest request) {
+        try {
+            ResourceVersion version = sellerService.findBooksVersion(id);
+            String etag = version.etag(pageable);
+
+            if (request.checkNotModified(etag, version.lastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+
+            if (version.lastModified() >= 0) {
+                response.lastModified(version.lastModified());
+            }
+
+            return response.body(sellerService.findBooks(id, pageable));
+        } catch (SellerServiceException exception) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @DeleteMapping("/{id}/books")
+    public ResponseEntity<BulkDeletion> deleteBooks(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok().body(sellerService.deleteBooks(id));
+        } catch (SellerServiceException exception) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @PatchMapping(value = "/update/{id}", consumes = MergePatchRepository.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Void> patch(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch
+    ) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+
+        try {
+            sellerService.patch(id, MergePatchRepository.expectedVersion(ifMatch), patch);
+
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (SellerServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
 }
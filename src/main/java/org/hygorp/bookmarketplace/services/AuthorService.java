@@ -1,8 +1,20 @@
 package org.hygorp.bookmarketplace.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hygorp.bookmarketplace.cache.NameSearchCache;
+import org.hygorp.bookmarketplace.cache.ReferenceCache;
 import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.indexes.NameSuggestionIndex;
+import org.hygorp.bookmarketplace.records.Cursor;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Suggestion;
 import org.hygorp.bookmarketplace.repositories.AuthorRepository;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
 import org.hygorp.bookmarketplace.services.exceptions.AuthorServiceException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -13,16 +25,58 @@ import java.util.*;
 
 @Service
 public class AuthorService {
+    public static final int MAX_SUGGESTIONS = 25;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "biography", "image");
+
     private final AuthorRepository authorRepository;
+    private final NameSuggestionIndex<AuthorEntity> authorSuggestionIndex;
+    private final NameSearchCache<AuthorEntity> authorSearchCache;
+    private final ReferenceCache referenceCache;
+    private final MergePatchRepository mergePatchRepository;
 
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(
+            AuthorRepository authorRepository,
+            NameSuggestionIndex<AuthorEntity> authorSuggestionIndex,
+            NameSearchCache<AuthorEntity> authorSearchCache,
+            ReferenceCache referenceCache,
+            MergePatchRepository mergePatchRepository
+    ) {
         this.authorRepository = authorRepository;
+        this.authorSuggestionIndex = authorSuggestionIndex;
+        this.authorSearchCache = authorSearchCache;
+        this.referenceCache = referenceCache;
+        this.mergePatchRepository = mergePatchRepository;
     }
 
     public Page<AuthorEntity> findAll(Pageable pageable) {
         return authorRepository.findAll(pageable);
     }
 
+    public CursorPage<AuthorEntity> findAll(String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new AuthorServiceException("Page size must be between 1 and " + CursorPage.MAX_SIZE);
+        }
+
+        try {
+            Limit limit = Limit.of(size + 1);
+            Cursor after = cursor == null ? null : Cursor.decode(cursor);
+
+            List<AuthorEntity> authors = after == null
+                    ? authorRepository.findAllByOrderByNameAscIdAsc(limit)
+                    : authorRepository.findAllAfter(after.key(), after.id(), limit);
+
+            return CursorPage.of(authors, size, author -> new Cursor(author.getName(), author.getId()), withTotal ? authorRepository.count() : null);
+        } catch (IllegalArgumentException exception) {
+            throw new AuthorServiceException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public ResourceVersion findVersionById(UUID id) {
+        return authorRepository.findVersionById(id).orElseThrow(
+                () -> new AuthorServiceException("Author not found with provided id: #" + id)
+        );
+    }
+
     public AuthorEntity findById(UUID id) {
         try {
             return authorRepository.findById(id).orElseThrow(
@@ -34,7 +88,15 @@ public class AuthorService {
     }
 
     public Set<AuthorEntity> findByName(String name) {
-        return authorRepository.findAllByNameContainingIgnoreCase(name);
+        return authorSearchCache.find(name);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new AuthorServiceException("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return authorSuggestionIndex.suggest(prefix, limit);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
@@ -69,7 +131,18 @@ public class AuthorService {
         }
     }
 
+    public void patch(UUID id, Long version, JsonNode patch) {
+        try {
+            mergePatchRepository.patch(AuthorEntity.class, id, version, patch, PATCHABLE_FIELDS).orElseThrow(
+                    () -> new AuthorServiceException("Author not found with provided id: #" + id)
+            );
+        } catch (InvalidDataAccessApiUsageException | DataIntegrityViolationException exception) {
+            throw new AuthorServiceException("Invalid patch for author #" + id + ": " + exception.getMessage());
+        }
+    }
+
     public void delete(UUID id) {
         authorRepository.deleteById(id);
+        referenceCache.evict(AuthorEntity.class, id);
     }
 }
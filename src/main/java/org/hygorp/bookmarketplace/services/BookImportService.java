@@ -0,0 +1,332 @@
+package org.hygorp.bookmarketplace.services;
+
+import org.hygorp.bookmarketplace.entities.*;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.identifiers.UuidV7Generator;
+import org.hygorp.bookmarketplace.imports.BookRowReader;
+import org.hygorp.bookmarketplace.imports.MalformedRowException;
+import org.hygorp.bookmarketplace.records.BookImportError;
+import org.hygorp.bookmarketplace.records.BookImportProgress;
+import org.hygorp.bookmarketplace.records.BookImportRow;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.hygorp.bookmarketplace.repositories.AuthorRepository;
+import org.hygorp.bookmarketplace.repositories.GenreRepository;
+import org.hygorp.bookmarketplace.repositories.PublisherRepository;
+import org.hygorp.bookmarketplace.repositories.SellerRepository;
+import org.hygorp.bookmarketplace.services.exceptions.BookServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Service
+public class BookImportService {
+    private static final String INSERT_BOOK = """
+            insert into tb_book (
+                id, version, updated_at, title, description, published_date, isbn, image,
+                price, stock, condition, cover_type, language, publisher_id, seller_id
+            ) values (?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_BOOK_AUTHOR = "insert into tb_book_author (book_id, author_id) values (?, ?)";
+    private static final String INSERT_BOOK_GENRE = "insert into tb_book_genre (book_id, genre_id) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthorRepository authorRepository;
+    private final GenreRepository genreRepository;
+    private final PublisherRepository publisherRepository;
+    private final SellerRepository sellerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public BookImportService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            AuthorRepository authorRepository,
+            GenreRepository genreRepository,
+            PublisherRepository publisherRepository,
+            SellerRepository sellerRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${book-marketplace.import.chunk-size:1000}") int chunkSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.authorRepository = authorRepository;
+        this.genreRepository = genreRepository;
+        this.publisherRepository = publisherRepository;
+        this.sellerRepository = sellerRepository;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public void requireSeller(UUID sellerId) {
+        if (sellerId != null && !sellerRepository.existsById(sellerId)) {
+            throw new BookServiceException("Seller not found with provided id: #" + sellerId);
+        }
+    }
+
+    public BookImportProgress importBooks(BookRowReader reader, UUID sellerId, Consumer<Object> listener) throws IOException {
+        requireSeller(sellerId);
+
+        Import anImport = new Import(sellerId, listener);
+        List<BookImportRow> chunk = new ArrayList<>(chunkSize);
+
+        while (true) {
+            BookImportRow row;
+
+            try {
+                row = reader.read();
+            } catch (MalformedRowException exception) {
+                anImport.fail(exception.getRow(), exception.getMessage());
+                continue;
+            }
+
+            if (row == null) {
+                break;
+            }
+
+            chunk.add(row);
+
+            if (chunk.size() == chunkSize) {
+                anImport.write(chunk);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            anImport.write(chunk);
+        }
+
+        BookImportProgress progress = anImport.progress(true);
+        listener.accept(progress);
+
+        return progress;
+    }
+
+    private class Import {
+        private final UUID sellerId;
+        private final Consumer<Object> listener;
+        private final Names authors = new Names(authorRepository::findAllSuggestionsByLowerNameIn);
+        private final Names genres = new Names(genreRepository::findAllSuggestionsByLowerNameIn);
+        private final Names publishers = new Names(publisherRepository::findAllSuggestionsByLowerNameIn);
+        private long processed;
+        private long imported;
+        private long failed;
+
+        Import(UUID sellerId, Consumer<Object> listener) {
+            this.sellerId = sellerId;
+            this.listener = listener;
+        }
+
+        void fail(long row, String error) {
+            processed++;
+            failed++;
+            listener.accept(new BookImportError(row, error));
+        }
+
+        BookImportProgress progress(boolean done) {
+            return new BookImportProgress(processed, imported, failed, done);
+        }
+
+        void write(List<BookImportRow> rows) {
+            authors.resolve(rows.stream().flatMap(row -> row.authors().stream()).toList());
+            genres.resolve(rows.stream().flatMap(row -> row.genres().stream()).toList());
+            publishers.resolve(rows.stream().map(BookImportRow::publisher).filter(Objects::nonNull).toList());
+
+            List<BookEntity> books = new ArrayList<>(rows.size());
+            List<Long> bookRows = new ArrayList<>(rows.size());
+
+            for (BookImportRow row : rows) {
+                try {
+                    books.add(toBook(row));
+                    bookRows.add(row.row());
+                } catch (IllegalArgumentException exception) {
+                    fail(row.row(), exception.getMessage());
+                }
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(books));
+                committed(books);
+            } catch (DataAccessException exception) {
+                for (int i = 0; i < books.size(); i++) {
+                    BookEntity book = books.get(i);
+
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insert(List.of(book)));
+                        committed(List.of(book));
+                    } catch (DataAccessException rowException) {
+                        fail(bookRows.get(i), "Could not store row: " + rowException.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+
+            listener.accept(progress(false));
+        }
+
+        private void committed(List<BookEntity> books) {
+            processed += books.size();
+            imported += books.size();
+            eventPublisher.publishEvent(new BooksChangedEvent(List.copyOf(books), EntityChangedEvent.Action.SAVED));
+        }
+
+        private void insert(List<BookEntity> books) {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+            jdbcTemplate.batchUpdate(INSERT_BOOK, books.stream().map(book -> new Object[]{
+                    book.getId(),
+                    now,
+                    book.getTitle(),
+                    book.getDescription(),
+                    book.getPublishedDate(),
+                    book.getIsbn(),
+                    book.getImage(),
+                    book.getPrice(),
+                    book.getStock(),
+                    book.getCondition().name(),
+                    book.getCoverType().name(),
+                    book.getLanguage().name(),
+                    book.getPublisher() == null ? null : book.getPublisher().getId(),
+                    book.getSeller() == null ? null : book.getSeller().getId()
+            }).toList());
+
+            jdbcTemplate.batchUpdate(INSERT_BOOK_AUTHOR, books.stream()
+                    .flatMap(book -> book.getAuthors().stream().map(author -> new Object[]{book.getId(), author.getId()}))
+                    .toList());
+
+            jdbcTemplate.batchUpdate(INSERT_BOOK_GENRE, books.stream()
+                    .flatMap(book -> book.getGenres().stream().map(genre -> new Object[]{book.getId(), genre.getId()}))
+                    .toList());
+        }
+
+        private BookEntity toBook(BookImportRow row) {
+            BookEntity book = new BookEntity(
+                    required(row.title(), "title"),
+                    required(row.description(), "description"),
+                    parse(row.publishedDate(), "publishedDate", LocalDate::parse),
+                    required(row.isbn(), "isbn"),
+                    required(row.image(), "image"),
+                    nonNegative(parse(row.price(), "price", Double::valueOf), "price"),
+                    nonNegative(parse(row.stock(), "stock", Integer::valueOf), "stock"),
+                    parse(row.condition(), "condition", value -> Condition.valueOf(constant(value))),
+                    parse(row.coverType(), "coverType", value -> CoverType.valueOf(constant(value))),
+                    parse(row.language(), "language", value -> Language.valueOf(constant(value)))
+            );
+
+            book.setId(UuidV7Generator.next());
+
+            for (String name : row.authors()) {
+                AuthorEntity author = new AuthorEntity();
+                author.setId(authors.idOf(name, "author"));
+                book.getAuthors().add(author);
+            }
+
+            for (String name : row.genres()) {
+                GenreEntity genre = new GenreEntity();
+                genre.setId(genres.idOf(name, "genre"));
+                book.getGenres().add(genre);
+            }
+
+            if (row.publisher() != null) {
+                PublisherEntity publisher = new PublisherEntity();
+                publisher.setId(publishers.idOf(row.publisher(), "publisher"));
+                book.setPublisher(publisher);
+            }
+
+            if (sellerId != null) {
+                SellerEntity seller = new SellerEntity();
+                seller.setId(sellerId);
+                book.setSeller(seller);
+            }
+
+            return book;
+        }
+    }
+
+    private static class Names {
+        private final Function<Collection<String>, List<Suggestion>> finder;
+        private final Map<String, UUID> ids = new HashMap<>();
+        private final Set<String> missing = new HashSet<>();
+
+        Names(Function<Collection<String>, List<Suggestion>> finder) {
+            this.finder = finder;
+        }
+
+        void resolve(Collection<String> names) {
+            Set<String> unresolved = new HashSet<>();
+
+            for (String name : names) {
+                String key = name.toLowerCase(Locale.ROOT);
+
+                if (!ids.containsKey(key) && !missing.contains(key)) {
+                    unresolved.add(key);
+                }
+            }
+
+            if (unresolved.isEmpty()) {
+                return;
+            }
+
+            finder.apply(unresolved).forEach(suggestion -> ids.put(suggestion.name().toLowerCase(Locale.ROOT), suggestion.id()));
+            unresolved.stream().filter(key -> !ids.containsKey(key)).forEach(missing::add);
+        }
+
+        UUID idOf(String name, String kind) {
+            UUID id = ids.get(name.toLowerCase(Locale.ROOT));
+
+            if (id == null) {
+                throw new IllegalArgumentException("Unknown " + kind + ": " + name);
+            }
+
+            return id;
+        }
+    }
+
+    private static String required(String value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+
+        return value;
+    }
+
+    private static <T> T parse(String value, String field, Function<String, T> parser) {
+        try {
+            return parser.apply(required(value, field));
+        } catch (DateTimeParseException | IllegalArgumentException exception) {
+            if (value == null) {
+                throw exception;
+            }
+
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static <T extends Number> T nonNegative(T value, String field) {
+        if (!Double.isFinite(value.doubleValue()) || value.doubleValue() < 0) {
+            throw new IllegalArgumentException(field + " must not be negative");
+        }
+
+        return value;
+    }
+
+    private static String constant(String value) {
+        return value.replace('-', '_').toUpperCase(Locale.ROOT);
+    }
+}
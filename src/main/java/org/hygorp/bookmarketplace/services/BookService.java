@@ -1,43 +1,239 @@
 package org.hygorp.bookmarketplace.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hygorp.bookmarketplace.cache.BookCache;
+import org.hygorp.bookmarketplace.cache.SingleFlight;
+import org.hygorp.bookmarketplace.cache.StaleWhileRevalidateCache;
 import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.events.StockReservedEvent;
+import org.hygorp.bookmarketplace.indexes.FacetIndex;
+import org.hygorp.bookmarketplace.indexes.IsbnIndex;
+import org.hygorp.bookmarketplace.indexes.IsbnNormalizer;
+import org.hygorp.bookmarketplace.indexes.PriceIndex;
+import org.hygorp.bookmarketplace.indexes.TitleIndex;
+import org.hygorp.bookmarketplace.records.BookBatch;
+import org.hygorp.bookmarketplace.records.BookFilter;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.records.BookVersion;
+import org.hygorp.bookmarketplace.records.BulkDeletion;
+import org.hygorp.bookmarketplace.records.Cursor;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.FacetedBooks;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.StockReservation;
 import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
+import org.hygorp.bookmarketplace.services.exceptions.BookConflictException;
 import org.hygorp.bookmarketplace.services.exceptions.BookServiceException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.NoSuchElementException;
-import java.util.Objects;
-import java.util.Set;
-import java.util.UUID;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookService {
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    public static final int MAX_BATCH_SIZE = 250;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title", "description", "publishedDate", "isbn", "image", "price", "stock", "condition", "coverType", "language", "publisher", "authors", "genres");
+
     private final BookRepository bookRepository;
+    private final TitleIndex titleIndex;
+    private final FacetIndex facetIndex;
+    private final IsbnIndex isbnIndex;
+    private final PriceIndex priceIndex;
+    private final BookCache bookCache;
+    private final StaleWhileRevalidateCache<Pageable, Page<BookSummary>> bookPageCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MergePatchRepository mergePatchRepository;
+    private final SingleFlight<List<UUID>, List<BookEntity>> booksByIds = new SingleFlight<>();
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(
+            BookRepository bookRepository,
+            TitleIndex titleIndex,
+            FacetIndex facetIndex,
+            IsbnIndex isbnIndex,
+            PriceIndex priceIndex,
+            BookCache bookCache,
+            StaleWhileRevalidateCache<Pageable, Page<BookSummary>> bookPageCache,
+            ApplicationEventPublisher eventPublisher,
+            MergePatchRepository mergePatchRepository
+    ) {
         this.bookRepository = bookRepository;
+        this.titleIndex = titleIndex;
+        this.facetIndex = facetIndex;
+        this.isbnIndex = isbnIndex;
+        this.priceIndex = priceIndex;
+        this.bookCache = bookCache;
+        this.bookPageCache = bookPageCache;
+        this.eventPublisher = eventPublisher;
+        this.mergePatchRepository = mergePatchRepository;
     }
 
     public Page<BookEntity> findAll(Pageable pageable) {
         return bookRepository.findAll(pageable);
     }
 
-    public BookEntity findById(UUID id) {
+    public Page<BookSummary> findAllSummaries(Pageable pageable) {
+        return bookPageCache.get(pageable);
+    }
+
+    public ResourceVersion findCatalogVersion() {
+        return bookRepository.findCatalogVersion();
+    }
+
+    public CursorPage<BookSummary> findAllSummaries(String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new BookServiceException("Page size must be between 1 and " + CursorPage.MAX_SIZE);
+        }
+
         try {
-            return bookRepository.findById(id).orElseThrow(
-                    () -> new NoSuchElementException("Book not found")
-            );
-        } catch (NoSuchElementException exception) {
-            throw new BookServiceException("Book not found with provided id: #" + id);
+            int limit = size + 1;
+            Cursor after = cursor == null ? null : Cursor.decode(cursor);
+
+            List<BookSummary> books = after == null
+                    ? bookRepository.findAllSummariesOrderByTitle(limit)
+                    : bookRepository.findAllSummariesAfter(after.key(), after.id(), limit);
+
+            return CursorPage.of(books, size, book -> new Cursor(book.title(), book.id()), withTotal ? bookRepository.count() : null);
+        } catch (IllegalArgumentException exception) {
+            throw new BookServiceException("Invalid cursor: " + cursor);
         }
     }
 
-    public Set<BookEntity> findByTitle(String title) {
-        return bookRepository.findAllByTitleContainingIgnoreCase(title);
+    public BookEntity findById(UUID id) {
+        return bookCache.get(id, bookRepository::findById).orElseThrow(
+                () -> new BookServiceException("Book not found with provided id: #" + id)
+        );
+    }
+
+    public BookVersion findVersionById(UUID id) {
+        return bookRepository.findVersionById(id).orElseThrow(
+                () -> new BookServiceException("Book not found with provided id: #" + id)
+        );
+    }
+
+    public BookBatch findAllByIds(List<UUID> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new BookServiceException("Number of ids must be between 1 and " + MAX_BATCH_SIZE);
+        }
+
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+
+        Map<UUID, BookEntity> books = bookRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
+
+        List<BookEntity> found = new ArrayList<>(books.size());
+        List<UUID> missing = new ArrayList<>();
+
+        requested.forEach(id -> {
+            BookEntity book = books.get(id);
+
+            if (book != null) {
+                found.add(book);
+            } else {
+                missing.add(id);
+            }
+        });
+
+        return new BookBatch(found, missing);
+    }
+
+    public List<BookEntity> findByIsbn(String isbn) {
+        if (isbn == null || isbn.isBlank()) {
+            throw new BookServiceException("ISBN must not be blank");
+        }
+
+        if (!IsbnNormalizer.isValid(isbn)) {
+            throw new BookServiceException("Invalid ISBN: " + isbn);
+        }
+
+        Set<UUID> ids = isbnIndex.find(isbn);
+
+        return ids.isEmpty() ? List.of() : bookRepository.findAllById(ids);
+    }
+
+    public Page<BookSummary> search(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new BookServiceException("Search query must not be blank");
+        }
+
+        Page<UUID> ids = bookRepository.searchIds(query.trim(), pageable);
+
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+
+        return new PageImpl<>(findAllSummariesInOrder(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    public Page<BookSummary> findByPrice(Double minPrice, Double maxPrice, Pageable pageable) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new BookServiceException("Minimum price must not be greater than maximum price");
+        }
+
+        Sort.Order order = pageable.getSort().getOrderFor("price");
+        boolean descending = order != null && order.isDescending();
+
+        PriceIndex.Result result = priceIndex.range(
+                minPrice == null ? null : PriceIndex.toCents(minPrice),
+                maxPrice == null ? null : PriceIndex.toCents(maxPrice),
+                descending,
+                pageable.getOffset(),
+                pageable.getPageSize()
+        );
+        List<BookSummary> books = result.ids().isEmpty() ? List.of() : findAllSummariesInOrder(result.ids());
+
+        return new PageImpl<>(books, pageable, result.total());
+    }
+
+    public FacetedBooks browse(BookFilter filter, Pageable pageable) {
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice() > filter.maxPrice()) {
+            throw new BookServiceException("Minimum price must not be greater than maximum price");
+        }
+
+        FacetIndex.Result result = facetIndex.browse(filter, pageable.getOffset(), pageable.getPageSize());
+        List<BookSummary> books = result.ids().isEmpty() ? List.of() : findAllSummariesInOrder(result.ids());
+
+        return new FacetedBooks(new PageImpl<>(books, pageable, result.total()), result.facets());
+    }
+
+    public List<BookEntity> findByTitle(String title) {
+        return findByTitle(title, DEFAULT_SEARCH_LIMIT);
+    }
+
+    public List<BookEntity> findByTitle(String title, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BookServiceException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        List<UUID> ids = titleIndex.search(title, limit);
+        Map<UUID, BookEntity> books = booksByIds.execute(ids, () -> bookRepository.findAllById(ids)).stream()
+                .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
+
+        return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<BookSummary> findAllSummariesInOrder(List<UUID> ids) {
+        Map<UUID, BookSummary> summaries = bookRepository.findAllSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookSummary::id, Function.identity()));
+
+        return ids.stream().map(summaries::get).filter(Objects::nonNull).toList();
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
@@ -50,6 +246,10 @@ public class BookService {
         try {
             BookEntity savedBook = bookRepository.findById(id).orElseThrow(() -> new NoSuchElementException("Book not found"));
 
+            if (book.getVersion() != null && !book.getVersion().equals(savedBook.getVersion())) {
+                throw new BookConflictException("Book #" + id + " was modified, expected version " + book.getVersion() + " but found " + savedBook.getVersion());
+            }
+
             if (!Objects.equals(savedBook.getTitle(), book.getTitle())) {
                 savedBook.setTitle(book.getTitle());
             }
@@ -90,13 +290,65 @@ public class BookService {
                 savedBook.getGenres().addAll(book.getGenres());
             }
 
-            return bookRepository.save(savedBook);
+            BookEntity updatedBook = bookRepository.save(savedBook);
+            bookCache.invalidate(id);
+
+            return updatedBook;
         } catch (NoSuchElementException e) {
             throw new BookServiceException("Book not found with provided id: #" + id);
         }
     }
 
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public StockReservation reserve(UUID id, int quantity) {
+        if (quantity <= 0) {
+            throw new BookServiceException("Quantity must be positive");
+        }
+
+        if (bookRepository.decrementStock(id, quantity, Instant.now()) == 0) {
+            if (!bookRepository.existsById(id)) {
+                throw new BookServiceException("Book not found with provided id: #" + id);
+            }
+
+            throw new BookConflictException("Not enough stock to reserve " + quantity + " of book #" + id);
+        }
+
+        StockReservation reservation = bookRepository.findStockById(id).orElseThrow(
+                () -> new BookServiceException("Book not found with provided id: #" + id)
+        );
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(new StockReservedEvent(id, reservation.stock()));
+            }
+        });
+
+        return reservation;
+    }
+
+    public void patch(UUID id, Long version, JsonNode patch) {
+        try {
+            mergePatchRepository.patch(BookEntity.class, id, version, patch, PATCHABLE_FIELDS).orElseThrow(
+                    () -> new BookServiceException("Book not found with provided id: #" + id)
+            );
+        } catch (InvalidDataAccessApiUsageException | DataIntegrityViolationException exception) {
+            throw new BookServiceException("Invalid patch for book #" + id + ": " + exception.getMessage());
+        }
+    }
+
+    public BulkDeletion deleteSoldOut(int olderThanDays) {
+        if (olderThanDays < 0) {
+            throw new BookServiceException("Days must not be negative");
+        }
+
+        Instant before = Instant.now().minus(Duration.ofDays(olderThanDays));
+
+        return new BulkDeletion(bookRepository.deleteAllSoldOutUpdatedBefore(before));
+    }
+
     public void delete(UUID id) {
         bookRepository.deleteById(id);
+        bookCache.invalidate(id);
     }
 }
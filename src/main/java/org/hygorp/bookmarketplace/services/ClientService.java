@@ -14,9 +14,11 @@ import java.util.UUID;
 @Service
 public class ClientService {
     private final ClientRepository clientRepository;
+    private final UserService userService;
 
-    public ClientService(ClientRepository clientRepository) {
+    public ClientService(ClientRepository clientRepository, UserService userService) {
         this.clientRepository = clientRepository;
+        this.userService = userService;
     }
 
     public ClientEntity findById(UUID id) {
@@ -78,8 +80,10 @@ public class ClientService {
                 savedClient.getAddresses().addAll(client.getAddresses());
             }
 
+            ClientEntity updatedClient = clientRepository.save(savedClient);
+            userService.evict(updatedClient.getCredentials());
 
-            return clientRepository.save(savedClient);
+            return updatedClient;
         } catch (NoSuchElementException exception) {
             throw new ClientServiceException("Client not found with provided id: #" + id);
         }
@@ -1,14 +1,28 @@
 package org.hygorp.bookmarketplace.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hygorp.bookmarketplace.cache.NameSearchCache;
+import org.hygorp.bookmarketplace.cache.ReferenceCache;
+import org.hygorp.bookmarketplace.cache.StaleWhileRevalidateCache;
 import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.indexes.NameSuggestionIndex;
+import org.hygorp.bookmarketplace.records.Cursor;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Suggestion;
 import org.hygorp.bookmarketplace.repositories.GenreRepository;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
 import org.hygorp.bookmarketplace.services.exceptions.GenreServiceException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
@@ -16,14 +30,59 @@ import java.util.UUID;
 
 @Service
 public class GenreService {
+    public static final int MAX_SUGGESTIONS = 25;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "image");
+
     private final GenreRepository genreRepository;
+    private final NameSuggestionIndex<GenreEntity> genreSuggestionIndex;
+    private final NameSearchCache<GenreEntity> genreSearchCache;
+    private final StaleWhileRevalidateCache<Pageable, Page<GenreEntity>> genrePageCache;
+    private final ReferenceCache referenceCache;
+    private final MergePatchRepository mergePatchRepository;
 
-    public GenreService(GenreRepository genreRepository) {
+    public GenreService(
+            GenreRepository genreRepository,
+            NameSuggestionIndex<GenreEntity> genreSuggestionIndex,
+            NameSearchCache<GenreEntity> genreSearchCache,
+            StaleWhileRevalidateCache<Pageable, Page<GenreEntity>> genrePageCache,
+            ReferenceCache referenceCache,
+            MergePatchRepository mergePatchRepository
+    ) {
         this.genreRepository = genreRepository;
+        this.genreSuggestionIndex = genreSuggestionIndex;
+        this.genreSearchCache = genreSearchCache;
+        this.genrePageCache = genrePageCache;
+        this.referenceCache = referenceCache;
+        this.mergePatchRepository = mergePatchRepository;
     }
 
     public Page<GenreEntity> findAll(Pageable pageable) {
-        return genreRepository.findAll(pageable);
+        return genrePageCache.get(pageable);
+    }
+
+    public CursorPage<GenreEntity> findAll(String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new GenreServiceException("Page size must be between 1 and " + CursorPage.MAX_SIZE);
+        }
+
+        try {
+            Limit limit = Limit.of(size + 1);
+            Cursor after = cursor == null ? null : Cursor.decode(cursor);
+
+            List<GenreEntity> genres = after == null
+                    ? genreRepository.findAllByOrderByNameAscIdAsc(limit)
+                    : genreRepository.findAllAfter(after.key(), after.id(), limit);
+
+            return CursorPage.of(genres, size, genre -> new Cursor(genre.getName(), genre.getId()), withTotal ? genreRepository.count() : null);
+        } catch (IllegalArgumentException exception) {
+            throw new GenreServiceException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public ResourceVersion findVersionById(UUID id) {
+        return genreRepository.findVersionById(id).orElseThrow(
+                () -> new GenreServiceException("Genre not found with provided id: #" + id)
+        );
     }
 
     public GenreEntity findById(UUID id) {
@@ -35,7 +94,15 @@ public class GenreService {
     }
 
     public Set<GenreEntity> findByName(String name) {
-        return genreRepository.findAllByNameContainingIgnoreCase(name);
+        return genreSearchCache.find(name);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new GenreServiceException("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return genreSuggestionIndex.suggest(prefix, limit);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
@@ -66,7 +133,18 @@ public class GenreService {
         }
     }
 
+    public void patch(UUID id, Long version, JsonNode patch) {
+        try {
+            mergePatchRepository.patch(GenreEntity.class, id, version, patch, PATCHABLE_FIELDS).orElseThrow(
+                    () -> new GenreServiceException("Genre not found with provided id: #" + id)
+            );
+        } catch (InvalidDataAccessApiUsageException | DataIntegrityViolationException exception) {
+            throw new GenreServiceException("Invalid patch for genre #" + id + ": " + exception.getMessage());
+        }
+    }
+
     public void delete(UUID id) {
         genreRepository.deleteById(id);
+        referenceCache.evict(GenreEntity.class, id);
     }
 }
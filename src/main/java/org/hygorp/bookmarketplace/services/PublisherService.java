@@ -1,14 +1,28 @@
 package org.hygorp.bookmarketplace.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hygorp.bookmarketplace.cache.NameSearchCache;
+import org.hygorp.bookmarketplace.cache.ReferenceCache;
+import org.hygorp.bookmarketplace.cache.StaleWhileRevalidateCache;
 import org.hygorp.bookmarketplace.entities.PublisherEntity;
+import org.hygorp.bookmarketplace.indexes.NameSuggestionIndex;
+import org.hygorp.bookmarketplace.records.Cursor;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
+import org.hygorp.bookmarketplace.records.Suggestion;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
 import org.hygorp.bookmarketplace.repositories.PublisherRepository;
 import org.hygorp.bookmarketplace.services.exceptions.PublisherServiceException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
@@ -16,14 +30,59 @@ import java.util.UUID;
 
 @Service
 public class PublisherService {
+    public static final int MAX_SUGGESTIONS = 25;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "logo");
+
     private final PublisherRepository publisherRepository;
+    private final NameSuggestionIndex<PublisherEntity> publisherSuggestionIndex;
+    private final NameSearchCache<PublisherEntity> publisherSearchCache;
+    private final StaleWhileRevalidateCache<Pageable, Page<PublisherEntity>> publisherPageCache;
+    private final ReferenceCache referenceCache;
+    private final MergePatchRepository mergePatchRepository;
 
-    public PublisherService(PublisherRepository publisherRepository) {
+    public PublisherService(
+            PublisherRepository publisherRepository,
+            NameSuggestionIndex<PublisherEntity> publisherSuggestionIndex,
+            NameSearchCache<PublisherEntity> publisherSearchCache,
+            StaleWhileRevalidateCache<Pageable, Page<PublisherEntity>> publisherPageCache,
+            ReferenceCache referenceCache,
+            MergePatchRepository mergePatchRepository
+    ) {
         this.publisherRepository = publisherRepository;
+        this.publisherSuggestionIndex = publisherSuggestionIndex;
+        this.publisherSearchCache = publisherSearchCache;
+        this.publisherPageCache = publisherPageCache;
+        this.referenceCache = referenceCache;
+        this.mergePatchRepository = mergePatchRepository;
     }
 
     public Page<PublisherEntity> findAll(Pageable pageable) {
-        return publisherRepository.findAll(pageable);
+        return publisherPageCache.get(pageable);
+    }
+
+    public CursorPage<PublisherEntity> findAll(String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new PublisherServiceException("Page size must be between 1 and " + CursorPage.MAX_SIZE);
+        }
+
+        try {
+            Limit limit = Limit.of(size + 1);
+            Cursor after = cursor == null ? null : Cursor.decode(cursor);
+
+            List<PublisherEntity> publishers = after == null
+                    ? publisherRepository.findAllByOrderByNameAscIdAsc(limit)
+                    : publisherRepository.findAllAfter(after.key(), after.id(), limit);
+
+            return CursorPage.of(publishers, size, publisher -> new Cursor(publisher.getName(), publisher.getId()), withTotal ? publisherRepository.count() : null);
+        } catch (IllegalArgumentException exception) {
+            throw new PublisherServiceException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public ResourceVersion findVersionById(UUID id) {
+        return publisherRepository.findVersionById(id).orElseThrow(
+                () -> new PublisherServiceException("Publisher not found with provided id: #" + id)
+        );
     }
 
     public PublisherEntity findById(UUID id) {
@@ -35,7 +94,15 @@ public class PublisherService {
     }
 
     public Set<PublisherEntity> findByName(String name) {
-        return publisherRepository.findAllByNameContainingIgnoreCase(name);
+        return publisherSearchCache.find(name);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new PublisherServiceException("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return publisherSuggestionIndex.suggest(prefix, limit);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
@@ -66,7 +133,18 @@ public class PublisherService {
         }
     }
 
+    public void patch(UUID id, Long version, JsonNode patch) {
+        try {
+            mergePatchRepository.patch(PublisherEntity.class, id, version, patch, PATCHABLE_FIELDS).orElseThrow(
+                    () -> new PublisherServiceException("Publisher not found with provided id: #" + id)
+            );
+        } catch (InvalidDataAccessApiUsageException | DataIntegrityViolationException exception) {
+            throw new PublisherServiceException("Invalid patch for publisher #" + id + ": " + exception.getMessage());
+        }
+    }
+
     public void delete(UUID id) {
         publisherRepository.deleteById(id);
+        referenceCache.evict(PublisherEntity.class, id);
     }
 }
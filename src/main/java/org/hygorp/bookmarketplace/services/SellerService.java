@@ -1,41 +1,94 @@
 package org.hygorp.bookmarketplace.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hygorp.bookmarketplace.cache.NameSearchCache;
+import org.hygorp.bookmarketplace.cache.SingleFlight;
+import org.hygorp.bookmarketplace.entities.AddressEntity;
 import org.hygorp.bookmarketplace.entities.SellerEntity;
+import org.hygorp.bookmarketplace.entities.UserEntity;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.records.BulkDeletion;
+import org.hygorp.bookmarketplace.records.Cursor;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.ResourceVersion;
 import org.hygorp.bookmarketplace.records.Seller;
+import org.hygorp.bookmarketplace.records.SellerLinks;
+import org.hygorp.bookmarketplace.repositories.AddressRepository;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.hygorp.bookmarketplace.repositories.MergePatchRepository;
 import org.hygorp.bookmarketplace.repositories.SellerRepository;
+import org.hygorp.bookmarketplace.repositories.UserRepository;
 import org.hygorp.bookmarketplace.services.exceptions.SellerServiceException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
 @Service
 public class SellerService {
-    private final SellerRepository sellerRepository;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "phone", "logo");
 
-    public SellerService(SellerRepository sellerRepository) {
+    private final SellerRepository sellerRepository;
+    private final BookRepository bookRepository;
+    private final NameSearchCache<SellerEntity> sellerSearchCache;
+    private final UserService userService;
+    private final MergePatchRepository mergePatchRepository;
+    private final AddressRepository addressRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<Pageable, Page<Seller>> sellerPages = new SingleFlight<>();
+
+    public SellerService(
+            SellerRepository sellerRepository,
+            BookRepository bookRepository,
+            NameSearchCache<SellerEntity> sellerSearchCache,
+            UserService userService,
+            MergePatchRepository mergePatchRepository,
+            AddressRepository addressRepository,
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher
+    ) {
         this.sellerRepository = sellerRepository;
+        this.bookRepository = bookRepository;
+        this.sellerSearchCache = sellerSearchCache;
+        this.userService = userService;
+        this.mergePatchRepository = mergePatchRepository;
+        this.addressRepository = addressRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<Seller> findAll(Pageable pageable) {
-        Page<SellerEntity> sellers = sellerRepository.findAll(pageable);
-
-        List<Seller> publicSellers = sellers.getContent().stream()
-                .map(sellerEntity -> new Seller(
-                        sellerEntity.getId(),
-                        sellerEntity.getName(),
-                        sellerEntity.getPhone(),
-                        sellerEntity.getLogo(),
-                        sellerEntity.getAddress(),
-                        sellerEntity.getBooks()
-                ))
-                .toList();
-
-        return new PageImpl<>(publicSellers, pageable, sellers.getTotalElements());
+        return sellerPages.execute(pageable, () -> sellerRepository.findAllSellers(pageable));
+    }
+
+    public CursorPage<Seller> findAll(String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new SellerServiceException("Page size must be between 1 and " + CursorPage.MAX_SIZE);
+        }
+
+        try {
+            Limit limit = Limit.of(size + 1);
+            Cursor after = cursor == null ? null : Cursor.decode(cursor);
+
+            List<Seller> sellers = after == null
+                    ? sellerRepository.findAllSellersOrderByName(limit)
+                    : sellerRepository.findAllSellersAfter(after.key(), after.id(), limit);
+
+            return CursorPage.of(sellers, size, seller -> new Cursor(seller.name(), seller.id()), withTotal ? sellerRepository.count() : null);
+        } catch (IllegalArgumentException exception) {
+            throw new SellerServiceException("Invalid cursor: " + cursor);
+        }
     }
 
     public SellerEntity findById(UUID id) {
@@ -46,8 +99,30 @@ public class SellerService {
         }
     }
 
+    public ResourceVersion findBooksVersion(UUID id) {
+        return sellerRepository.findBooksVersionById(id).orElseThrow(
+                () -> new SellerServiceException("Seller not found with provided id: #" + id)
+        );
+    }
+
+    public Page<BookSummary> findBooks(UUID id, Pageable pageable) {
+        if (!sellerRepository.existsById(id)) {
+            throw new SellerServiceException("Seller not found with provided id: #" + id);
+        }
+
+        return bookRepository.findAllSummariesBySellerId(id, pageable);
+    }
+
+    public BulkDeletion deleteBooks(UUID id) {
+        if (!sellerRepository.existsById(id)) {
+            throw new SellerServiceException("Seller not found with provided id: #" + id);
+        }
+
+        return new BulkDeletion(bookRepository.deleteAllBySellerId(id));
+    }
+
     public Set<SellerEntity> findByName(String name) {
-        return sellerRepository.findAllByNameContainingIgnoreCase(name);
+        return sellerSearchCache.find(name);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
@@ -110,13 +185,59 @@ public class SellerService {
                 }
             }
 
-            return sellerRepository.save(savedSeller);
+            SellerEntity updatedSeller = sellerRepository.save(savedSeller);
+            userService.evict(updatedSeller.getCredentials());
+
+            return updatedSeller;
         } catch (NoSuchElementException exception) {
             throw new SellerServiceException("Seller not found with provided id: #" + id);
         }
     }
 
+    public void patch(UUID id, Long version, JsonNode patch) {
+        try {
+            mergePatchRepository.patch(SellerEntity.class, id, version, patch, PATCHABLE_FIELDS).orElseThrow(
+                    () -> new SellerServiceException("Seller not found with provided id: #" + id)
+            );
+        } catch (InvalidDataAccessApiUsageException | DataIntegrityViolationException exception) {
+            throw new SellerServiceException("Invalid patch for seller #" + id + ": " + exception.getMessage());
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
     public void delete(UUID id) {
-        sellerRepository.deleteById(id);
+        Optional<SellerLinks> links = sellerRepository.findLinksById(id);
+
+        if (links.isEmpty()) {
+            return;
+        }
+
+        bookRepository.deleteAllBySellerId(id);
+        sellerRepository.deleteAllByIdInBatch(List.of(id));
+
+        SellerEntity seller = new SellerEntity();
+        seller.setId(id);
+        List<Object> deleted = new ArrayList<>(List.of(seller));
+
+        if (links.get().addressId() != null) {
+            AddressEntity address = new AddressEntity();
+            address.setId(links.get().addressId());
+            addressRepository.deleteAllByIdInBatch(List.of(address.getId()));
+            deleted.add(address);
+        }
+
+        if (links.get().credentialsId() != null) {
+            UserEntity credentials = new UserEntity();
+            credentials.setId(links.get().credentialsId());
+            userRepository.deleteAllByIdInBatch(List.of(credentials.getId()));
+            deleted.add(credentials);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleted.forEach(entity -> eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.Action.DELETED)));
+            }
+        });
     }
 }
@@ -0,0 +1,102 @@
+package org.hygorp.bookmarketplace.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hygorp.bookmarketplace.entities.UserEntity;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.repositories.UserRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class UserService implements UserDetailsService {
+    private static final Duration PRINCIPAL_TTL = Duration.ofMinutes(5);
+
+    private final UserRepository userRepository;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<String, Principal> principals = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(PRINCIPAL_TTL)
+            .recordStats()
+            .build();
+
+    public UserService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        String normalizedUsername = UserEntity.normalize(username);
+
+        if (normalizedUsername == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+
+        Principal principal = principals.getIfPresent(normalizedUsername);
+
+        if (principal == null) {
+            long expectedGeneration = generation.get();
+            principal = userRepository.findByNormalizedUsername(normalizedUsername)
+                    .map(Principal::of)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with provided username: #" + username));
+
+            if (generation.get() == expectedGeneration) {
+                principals.put(normalizedUsername, principal);
+
+                if (generation.get() != expectedGeneration) {
+                    principals.invalidate(normalizedUsername);
+                }
+            }
+        }
+
+        return principal.toUserDetails();
+    }
+
+    public void evict(UserEntity user) {
+        if (user == null) {
+            return;
+        }
+
+        generation.incrementAndGet();
+
+        if (user.getNormalizedUsername() != null) {
+            principals.invalidate(user.getNormalizedUsername());
+        }
+
+        if (user.getId() != null) {
+            principals.asMap().values().removeIf(principal -> principal.id().equals(user.getId()));
+        }
+    }
+
+    public CacheStats stats() {
+        return principals.stats();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entity() instanceof UserEntity user) {
+            evict(user);
+        }
+    }
+
+    private record Principal(UUID id, String username, String password, List<GrantedAuthority> authorities) {
+        static Principal of(UserEntity user) {
+            return new Principal(user.getId(), user.getUsername(), user.getPassword(), List.copyOf(user.getAuthorities()));
+        }
+
+        UserDetails toUserDetails() {
+            return User.withUsername(username).password(password).authorities(authorities).build();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.hygorp.bookmarketplace.services.exceptions;
+
+public class BookConflictException extends BookServiceException {
+    public BookConflictException(String message) {
+        super(message);
+    }
+}
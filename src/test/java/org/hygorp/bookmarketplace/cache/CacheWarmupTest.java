@@ -0,0 +1,145 @@
+package org.hygorp.bookmarketplace.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.services.BookService;
+import org.hygorp.bookmarketplace.services.GenreService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("CacheWarmupTests")
+public class CacheWarmupTest {
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private StaleWhileRevalidateCache<Pageable, Page<BookSummary>> bookPageCache;
+
+    @Autowired
+    private StaleWhileRevalidateCache<Pageable, Page<GenreEntity>> genrePageCache;
+
+    @Autowired
+    private CacheWarmup cacheWarmup;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private UUID myBookId;
+
+    @BeforeEach
+    void beforeEach() {
+        bookRepository.deleteAll();
+
+        myBookId = bookRepository.save(new BookEntity(
+                "Book Test 01",
+                "Description Test 01",
+                LocalDate.parse("1970-01-01"),
+                "123456",
+                "https://image.com/book-test-01.jpg",
+                53.65,
+                10,
+                Condition.NEW,
+                CoverType.HARDCOVER,
+                Language.PT_BR
+        )).getId();
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should preload front page books")
+    @Order(1)
+    void shouldPreloadFrontPageBooks() {
+        cacheWarmup.warmUp();
+
+        long hits = bookCache.stats().hitCount();
+
+        Assertions.assertEquals("Book Test 01", bookService.findById(myBookId).getTitle());
+        Assertions.assertEquals(hits + 1, bookCache.stats().hitCount());
+        Assertions.assertEquals(Status.UP, cacheWarmup.health().getStatus());
+    }
+
+    @Test
+    @DisplayName("should report readiness once warm-up finishes")
+    @Order(2)
+    void shouldReportReadinessOnceWarmUpFinishes() throws Exception {
+        cacheWarmup.warmUp();
+
+        MvcResult response = mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = new ObjectMapper().readTree(response.getResponse().getContentAsString());
+
+        Assertions.assertEquals("UP", body.get("status").asText());
+    }
+
+    @Test
+    @DisplayName("should not preload a snapshot read before the book changed")
+    @Order(3)
+    void shouldNotPreloadASnapshotReadBeforeTheBookChanged() {
+        long generation = bookCache.generation();
+        BookEntity snapshot = bookRepository.findById(myBookId).orElseThrow();
+
+        BookEntity book = bookRepository.findById(myBookId).orElseThrow();
+        book.setTitle("Book Test 01 - (Edited)");
+        bookRepository.save(book);
+
+        bookCache.preload(generation, snapshot);
+
+        Assertions.assertEquals("Book Test 01 - (Edited)", bookService.findById(myBookId).getTitle());
+    }
+
+    @Test
+    @DisplayName("should warm the first page of each page cache")
+    @Order(4)
+    void shouldWarmTheFirstPageOfEachPageCache() {
+        cacheWarmup.warmUp();
+
+        long bookHits = bookPageCache.stats().hitCount();
+        long genreHits = genrePageCache.stats().hitCount();
+
+        Assertions.assertEquals(1, bookService.findAllSummaries(PageRequest.of(0, 20)).getTotalElements());
+        genreService.findAll(PageRequest.of(0, 20));
+
+        Assertions.assertEquals(bookHits + 1, bookPageCache.stats().hitCount());
+        Assertions.assertEquals(genreHits + 1, genrePageCache.stats().hitCount());
+    }
+}
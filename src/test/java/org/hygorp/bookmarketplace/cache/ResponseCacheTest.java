@@ -0,0 +1,74 @@
+package org.hygorp.bookmarketplace.cache;
+
+import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.entities.PublisherEntity;
+import org.hygorp.bookmarketplace.entities.SellerEntity;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("ResponseCacheTests")
+public class ResponseCacheTest {
+    private static final ResponseCache.Key BOOK_PAGE = new ResponseCache.Key(CachedEndpoint.BOOK_PAGES, "/api/v1/books/find-all", "page=0");
+    private static final ResponseCache.Key SELLER_PAGE = new ResponseCache.Key(CachedEndpoint.SELLER_PAGES, "/api/v1/sellers/find-all", "page=0");
+    private static final ResponseCache.Key SELLER_BOOKS = new ResponseCache.Key(CachedEndpoint.SELLER_PAGES, "/api/v1/sellers/00000000-0000-0000-0000-000000000000/books", "");
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    @BeforeEach
+    void beforeEach() {
+        for (ResponseCache.Key key : List.of(BOOK_PAGE, SELLER_PAGE, SELLER_BOOKS)) {
+            responseCache.put(key, responseCache.generation(), "{}".getBytes(StandardCharsets.UTF_8), "application/json", null, -1);
+        }
+    }
+
+    @Test
+    @DisplayName("should evict book and seller pages when a book changes")
+    @Order(1)
+    void shouldEvictBookAndSellerPagesWhenABookChanges() {
+        responseCache.onEntityChanged(new EntityChangedEvent(new BookEntity(), EntityChangedEvent.Action.SAVED));
+
+        assertEvicted(BOOK_PAGE, SELLER_PAGE, SELLER_BOOKS);
+    }
+
+    @Test
+    @DisplayName("should evict book and seller pages when an author changes")
+    @Order(2)
+    void shouldEvictBookAndSellerPagesWhenAnAuthorChanges() {
+        responseCache.onEntityChanged(new EntityChangedEvent(new AuthorEntity(), EntityChangedEvent.Action.DELETED));
+
+        assertEvicted(BOOK_PAGE, SELLER_PAGE, SELLER_BOOKS);
+    }
+
+    @Test
+    @DisplayName("should evict book and seller pages when a seller changes")
+    @Order(3)
+    void shouldEvictBookAndSellerPagesWhenASellerChanges() {
+        responseCache.onEntityChanged(new EntityChangedEvent(new SellerEntity(), EntityChangedEvent.Action.SAVED));
+
+        assertEvicted(BOOK_PAGE, SELLER_PAGE, SELLER_BOOKS);
+    }
+
+    @Test
+    @DisplayName("should keep book and seller pages when an unrelated entity changes")
+    @Order(4)
+    void shouldKeepBookAndSellerPagesWhenAnUnrelatedEntityChanges() {
+        responseCache.onEntityChanged(new EntityChangedEvent(new GenreEntity(), EntityChangedEvent.Action.SAVED));
+        responseCache.onEntityChanged(new EntityChangedEvent(new PublisherEntity(), EntityChangedEvent.Action.SAVED));
+
+        Assertions.assertNotNull(responseCache.get(BOOK_PAGE));
+        Assertions.assertNotNull(responseCache.get(SELLER_PAGE));
+        Assertions.assertNotNull(responseCache.get(SELLER_BOOKS));
+    }
+
+    private void assertEvicted(ResponseCache.Key... keys) {
+        for (ResponseCache.Key key : keys) {
+            Assertions.assertNull(responseCache.get(key), key.path());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.hygorp.bookmarketplace.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("SingleFlightTests")
+public class SingleFlightTest {
+    private static final int CALLERS = 32;
+
+    @Test
+    @DisplayName("should run one load for concurrent identical calls")
+    @Order(1)
+    void shouldRunOneLoadForConcurrentIdenticalCalls() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = callConcurrently(singleFlight, release, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return 42;
+        });
+
+        for (Future<Integer> result : results) {
+            Assertions.assertEquals(42, result.get(5, TimeUnit.SECONDS));
+        }
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    @DisplayName("should share failure with waiting callers")
+    @Order(2)
+    void shouldShareFailureWithWaitingCallers() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = callConcurrently(singleFlight, release, () -> {
+            await(release);
+            throw new IllegalStateException("boom");
+        });
+
+        for (Future<Integer> result : results) {
+            ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+        }
+
+        Assertions.assertEquals(7, singleFlight.execute("key", () -> 7));
+    }
+
+    private List<Future<Integer>> callConcurrently(SingleFlight<String, Integer> singleFlight, CountDownLatch release, Supplier<Integer> loader) throws InterruptedException {
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CountDownLatch started = new CountDownLatch(CALLERS);
+
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    started.countDown();
+                    return singleFlight.execute("key", loader);
+                }));
+            }
+
+            started.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
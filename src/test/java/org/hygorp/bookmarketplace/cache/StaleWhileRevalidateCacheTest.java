@@ -0,0 +1,142 @@
+package org.hygorp.bookmarketplace.cache;
+
+import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("StaleWhileRevalidateCacheTests")
+public class StaleWhileRevalidateCacheTest {
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Queue<Runnable> refreshes = new ArrayDeque<>();
+    private Function<String, String> loader = key -> key + "-" + loads.incrementAndGet();
+
+    private final StaleWhileRevalidateCache<String, String> cache = new StaleWhileRevalidateCache<>(
+            "swr.test",
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(60),
+            Set.of(GenreEntity.class),
+            key -> loader.apply(key),
+            now::get,
+            refreshes::add
+    );
+
+    @Test
+    @DisplayName("should serve fresh entry without reloading")
+    @Order(1)
+    void shouldServeFreshEntryWithoutReloading() {
+        Assertions.assertEquals("page-1", cache.get("page"));
+
+        advance(Duration.ofSeconds(4));
+
+        Assertions.assertEquals("page-1", cache.get("page"));
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("should serve stale entry while one refresh runs")
+    @Order(2)
+    void shouldServeStaleEntryWhileOneRefreshRuns() {
+        Assertions.assertEquals("page-1", cache.get("page"));
+
+        advance(Duration.ofSeconds(10));
+
+        Assertions.assertEquals("page-1", cache.get("page"));
+        Assertions.assertEquals("page-1", cache.get("page"));
+        Assertions.assertEquals(1, loads.get());
+
+        runRefreshes();
+
+        Assertions.assertEquals("page-2", cache.get("page"));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("should load synchronously after hard expiry")
+    @Order(3)
+    void shouldLoadSynchronouslyAfterHardExpiry() {
+        Assertions.assertEquals("page-1", cache.get("page"));
+
+        advance(Duration.ofSeconds(61));
+
+        Assertions.assertEquals("page-2", cache.get("page"));
+    }
+
+    @Test
+    @DisplayName("should revalidate entries in the background on dependent entity change only")
+    @Order(4)
+    void shouldRevalidateEntriesInTheBackgroundOnDependentEntityChangeOnly() {
+        Assertions.assertEquals("page-1", cache.get("page"));
+
+        cache.onEntityChanged(new EntityChangedEvent(new AuthorEntity(), EntityChangedEvent.Action.SAVED));
+        Assertions.assertEquals("page-1", cache.get("page"));
+
+        runRefreshes();
+        Assertions.assertEquals(1, loads.get());
+
+        cache.onEntityChanged(new EntityChangedEvent(new GenreEntity(), EntityChangedEvent.Action.SAVED));
+        Assertions.assertEquals("page-1", cache.get("page"));
+        Assertions.assertEquals("page-1", cache.get("page"));
+        Assertions.assertEquals(1, loads.get());
+
+        runRefreshes();
+
+        Assertions.assertEquals("page-2", cache.get("page"));
+        Assertions.assertEquals("page-2", cache.get("page"));
+
+        runRefreshes();
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("should revalidate again when a change lands during a refresh")
+    @Order(5)
+    void shouldRevalidateAgainWhenAChangeLandsDuringARefresh() {
+        Assertions.assertEquals("page-1", cache.get("page"));
+
+        cache.onEntityChanged(new EntityChangedEvent(new GenreEntity(), EntityChangedEvent.Action.SAVED));
+        Assertions.assertEquals("page-1", cache.get("page"));
+
+        loader = key -> {
+            cache.onEntityChanged(new EntityChangedEvent(new GenreEntity(), EntityChangedEvent.Action.SAVED));
+            return key + "-" + loads.incrementAndGet();
+        };
+        runRefreshes();
+        loader = key -> key + "-" + loads.incrementAndGet();
+
+        Assertions.assertEquals("page-2", cache.get("page"));
+
+        runRefreshes();
+
+        Assertions.assertEquals("page-3", cache.get("page"));
+    }
+
+    @Test
+    @DisplayName("should reject soft ttl not shorter than hard ttl")
+    @Order(6)
+    void shouldRejectSoftTtlNotShorterThanHardTtl() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StaleWhileRevalidateCache<String, String>(
+                "swr.invalid", Duration.ofSeconds(60), Duration.ofSeconds(60), Set.of(), key -> key
+        ));
+    }
+
+    private void runRefreshes() {
+        while (!refreshes.isEmpty()) {
+            refreshes.poll().run();
+        }
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
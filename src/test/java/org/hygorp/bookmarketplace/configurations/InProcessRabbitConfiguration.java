@@ -0,0 +1,66 @@
+package org.hygorp.bookmarketplace.configurations;
+
+import org.hygorp.bookmarketplace.messaging.ClusterCacheInvalidation;
+import org.hygorp.bookmarketplace.messaging.EntityChangedMessage;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Configuration
+public class InProcessRabbitConfiguration {
+    @Bean
+    @Primary
+    public InProcessRabbitTemplate inProcessRabbitTemplate(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            ObjectProvider<ClusterCacheInvalidation> clusterCacheInvalidation
+    ) {
+        InProcessRabbitTemplate rabbitTemplate = new InProcessRabbitTemplate(connectionFactory, clusterCacheInvalidation);
+        rabbitTemplate.setMessageConverter(messageConverter);
+
+        return rabbitTemplate;
+    }
+
+    public static class InProcessRabbitTemplate extends RabbitTemplate {
+        private final ObjectProvider<ClusterCacheInvalidation> clusterCacheInvalidation;
+        private final List<EntityChangedMessage> published = new CopyOnWriteArrayList<>();
+        private volatile boolean unavailable;
+
+        public InProcessRabbitTemplate(ConnectionFactory connectionFactory, ObjectProvider<ClusterCacheInvalidation> clusterCacheInvalidation) {
+            super(connectionFactory);
+            this.clusterCacheInvalidation = clusterCacheInvalidation;
+        }
+
+        public List<EntityChangedMessage> published() {
+            return published;
+        }
+
+        public void setUnavailable(boolean unavailable) {
+            this.unavailable = unavailable;
+        }
+
+        @Override
+        public void convertAndSend(String exchange, String routingKey, Object object) {
+            if (unavailable) {
+                throw new AmqpConnectException(new IOException("Broker unavailable"));
+            }
+
+            Message message = getMessageConverter().toMessage(object, new MessageProperties());
+            EntityChangedMessage delivered = (EntityChangedMessage) getMessageConverter().fromMessage(message);
+
+            published.add(delivered);
+            clusterCacheInvalidation.getObject().onMessage(delivered);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.hygorp.bookmarketplace.identifiers;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("UuidV7GeneratorTests")
+public class UuidV7GeneratorTest {
+    @Test
+    @DisplayName("should generate version 7 uuids carrying the timestamp")
+    @Order(1)
+    void shouldGenerateVersion7UuidsCarryingTheTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        Assertions.assertEquals(7, id.version());
+        Assertions.assertEquals(2, id.variant());
+
+        long millis = id.getMostSignificantBits() >>> 16;
+
+        Assertions.assertTrue(millis >= before && millis <= after);
+    }
+
+    @Test
+    @DisplayName("should generate strictly increasing uuids within the same millisecond")
+    @Order(2)
+    void shouldGenerateStrictlyIncreasingUuidsWithinTheSameMillisecond() {
+        UuidV7Generator.Sequence sequence = new UuidV7Generator.Sequence();
+        List<UUID> ids = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(sequence.next(1_700_000_000_000L));
+        }
+
+        assertStrictlyIncreasing(ids);
+    }
+
+    @Test
+    @DisplayName("should keep increasing when the clock moves backwards")
+    @Order(3)
+    void shouldKeepIncreasingWhenTheClockMovesBackwards() {
+        UuidV7Generator.Sequence sequence = new UuidV7Generator.Sequence();
+
+        UUID first = sequence.next(1_700_000_000_000L);
+        UUID second = sequence.next(1_699_999_999_000L);
+        UUID third = sequence.next(1_700_000_000_001L);
+
+        assertStrictlyIncreasing(List.of(first, second, third));
+    }
+
+    private static void assertStrictlyIncreasing(List<UUID> ids) {
+        for (int i = 1; i < ids.size(); i++) {
+            Assertions.assertTrue(
+                    ids.get(i - 1).toString().compareTo(ids.get(i).toString()) < 0,
+                    ids.get(i - 1) + " should sort before " + ids.get(i)
+            );
+        }
+    }
+}
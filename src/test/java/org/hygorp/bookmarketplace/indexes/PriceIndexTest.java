@@ -0,0 +1,125 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("PriceIndexTests")
+public class PriceIndexTest {
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    private UUID cheapId;
+    private UUID dearId;
+
+    @BeforeEach
+    void beforeEach() {
+        bookRepository.deleteAll();
+
+        cheapId = bookRepository.save(book("Cheap", 9.99)).getId();
+        dearId = bookRepository.save(book("Dear", 99.99)).getId();
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should leave prices that do not fit the index out of the order")
+    @Order(1)
+    void shouldLeavePricesThatDoNotFitTheIndexOutOfTheOrder() {
+        BookEntity dear = bookRepository.findById(dearId).orElseThrow();
+        dear.setPrice(30_000_000.00);
+        bookRepository.save(dear);
+
+        Assertions.assertEquals(List.of(cheapId), priceIndex.range(null, null, false, 0, 10).ids());
+        Assertions.assertEquals(List.of(cheapId), priceIndex.range(0L, Long.MAX_VALUE, true, 0, 10).ids());
+        Assertions.assertEquals(List.of(), priceIndex.range(Long.MAX_VALUE, null, false, 0, 10).ids());
+        Assertions.assertEquals(List.of(), priceIndex.range(null, -1L, false, 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("should keep changes that land while rebuilding")
+    @Order(2)
+    void shouldKeepChangesThatLandWhileRebuilding() {
+        UUID lateArrivalId = UUID.randomUUID();
+        PriceIndex[] rebuilding = new PriceIndex[1];
+        BookRepository loadingRepository = (BookRepository) Proxy.newProxyInstance(
+                BookRepository.class.getClassLoader(),
+                new Class<?>[]{BookRepository.class},
+                (proxy, method, args) -> {
+                    try {
+                        Object result = method.invoke(bookRepository, args);
+
+                        if (method.getName().equals("findAllPrices")) {
+                            rebuilding[0].index(lateArrivalId, 50.00);
+                            rebuilding[0].remove(cheapId);
+                        }
+
+                        return result;
+                    } catch (InvocationTargetException exception) {
+                        throw exception.getCause();
+                    }
+                }
+        );
+        rebuilding[0] = new PriceIndex(loadingRepository, new BookOrdinals());
+
+        rebuilding[0].rebuild();
+
+        Assertions.assertEquals(List.of(lateArrivalId, dearId), rebuilding[0].range(null, null, false, 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("should apply bulk changes in price order")
+    @Order(3)
+    void shouldApplyBulkChangesInPriceOrder() {
+        BookEntity middle = bookRepository.save(book("Middle", 50.00));
+        BookEntity cheapest = bookRepository.save(book("Cheapest", 1.00));
+        BookEntity dear = bookRepository.findById(dearId).orElseThrow();
+        dear.setPrice(0.50);
+        priceIndex.onBooksChanged(new BooksChangedEvent(List.of(middle, cheapest, dear), EntityChangedEvent.Action.SAVED));
+
+        Assertions.assertEquals(List.of(dearId, cheapest.getId(), cheapId, middle.getId()), priceIndex.range(null, null, false, 0, 10).ids());
+
+        priceIndex.onBooksChanged(new BooksChangedEvent(List.of(cheapest, middle), EntityChangedEvent.Action.DELETED));
+
+        Assertions.assertEquals(List.of(dearId, cheapId), priceIndex.range(null, null, false, 0, 10).ids());
+        Assertions.assertEquals(List.of(cheapId), priceIndex.range(100L, null, false, 0, 10).ids());
+    }
+
+    private static BookEntity book(String title, double price) {
+        return new BookEntity(
+                title,
+                "Description",
+                LocalDate.parse("1945-08-17"),
+                "9780451526342",
+                "https://image.com/book.jpg",
+                price,
+                5,
+                Condition.NEW,
+                CoverType.SOFTCOVER,
+                Language.EN_GB
+        );
+    }
+}
@@ -0,0 +1,143 @@
+package org.hygorp.bookmarketplace.indexes;
+
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("TitleIndexTests")
+public class TitleIndexTest {
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TitleIndex titleIndex;
+
+    private UUID animalFarmId;
+    private UUID farmLifeId;
+    private UUID nineteenEightyFourId;
+
+    @BeforeEach
+    void beforeEach() {
+        bookRepository.deleteAll();
+
+        animalFarmId = bookRepository.save(book("Animal Farm")).getId();
+        farmLifeId = bookRepository.save(book("Farm Life")).getId();
+        nineteenEightyFourId = bookRepository.save(book("Nineteen Eighty-Four")).getId();
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should rank prefix matches before inner matches")
+    @Order(1)
+    void shouldRankPrefixMatchesBeforeInnerMatches() {
+        List<UUID> hits = titleIndex.search("farm", 10);
+
+        Assertions.assertEquals(List.of(farmLifeId, animalFarmId), hits);
+    }
+
+    @Test
+    @DisplayName("should ignore case and accents")
+    @Order(2)
+    void shouldIgnoreCaseAndAccents() {
+        List<UUID> hits = titleIndex.search("NÍNETEEN", 10);
+
+        Assertions.assertEquals(List.of(nineteenEightyFourId), hits);
+    }
+
+    @Test
+    @DisplayName("should limit hits")
+    @Order(3)
+    void shouldLimitHits() {
+        Assertions.assertEquals(1, titleIndex.search("farm", 1).size());
+        Assertions.assertEquals(3, titleIndex.search("i", 10).size());
+    }
+
+    @Test
+    @DisplayName("should match queries shorter than a trigram")
+    @Order(6)
+    void shouldMatchQueriesShorterThanATrigram() {
+        Assertions.assertEquals(List.of(farmLifeId, animalFarmId), titleIndex.search("fa", 10));
+        Assertions.assertEquals(List.of(nineteenEightyFourId), titleIndex.search("y", 10));
+        Assertions.assertEquals(List.of(), titleIndex.search("q", 10));
+    }
+
+    @Test
+    @DisplayName("should follow updates and deletes")
+    @Order(4)
+    void shouldFollowUpdatesAndDeletes() {
+        BookEntity animalFarm = bookRepository.findById(animalFarmId).orElseThrow();
+        animalFarm.setTitle("Homage to Catalonia");
+        bookRepository.save(animalFarm);
+
+        bookRepository.deleteById(farmLifeId);
+
+        Assertions.assertTrue(titleIndex.search("farm", 10).isEmpty());
+        Assertions.assertEquals(List.of(animalFarmId), titleIndex.search("catalonia", 10));
+    }
+
+    @Test
+    @DisplayName("should keep changes that land while rebuilding")
+    @Order(5)
+    void shouldKeepChangesThatLandWhileRebuilding() {
+        UUID lateArrivalId = UUID.randomUUID();
+        TitleIndex[] rebuilding = new TitleIndex[1];
+        BookRepository loadingRepository = (BookRepository) Proxy.newProxyInstance(
+                BookRepository.class.getClassLoader(),
+                new Class<?>[]{BookRepository.class},
+                (proxy, method, args) -> {
+                    try {
+                        Object result = method.invoke(bookRepository, args);
+
+                        if (method.getName().equals("findAllTitles")) {
+                            rebuilding[0].index(lateArrivalId, "Late Arrival");
+                            rebuilding[0].remove(farmLifeId);
+                        }
+
+                        return result;
+                    } catch (InvocationTargetException exception) {
+                        throw exception.getCause();
+                    }
+                }
+        );
+        rebuilding[0] = new TitleIndex(loadingRepository);
+
+        rebuilding[0].rebuild();
+
+        Assertions.assertEquals(List.of(lateArrivalId), rebuilding[0].search("arrival", 10));
+        Assertions.assertEquals(List.of(animalFarmId), rebuilding[0].search("farm", 10));
+    }
+
+    private static BookEntity book(String title) {
+        return new BookEntity(
+                title,
+                "Description",
+                LocalDate.parse("1945-08-17"),
+                "9780451526342",
+                "https://image.com/book.jpg",
+                29.90,
+                5,
+                Condition.NEW,
+                CoverType.SOFTCOVER,
+                Language.EN_GB
+        );
+    }
+}
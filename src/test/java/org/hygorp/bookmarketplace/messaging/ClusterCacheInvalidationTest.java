@@ -0,0 +1,189 @@
+package org.hygorp.bookmarketplace.messaging;
+
+import org.hygorp.bookmarketplace.configurations.InProcessRabbitConfiguration.InProcessRabbitTemplate;
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.indexes.TitleIndex;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.hygorp.bookmarketplace.services.BookService;
+import org.hygorp.bookmarketplace.services.exceptions.BookServiceException;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("ClusterCacheInvalidationTests")
+public class ClusterCacheInvalidationTest {
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private TitleIndex titleIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InProcessRabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ClusterCacheInvalidation clusterCacheInvalidation;
+
+    private UUID myBookId;
+
+    @BeforeEach
+    void beforeEach() {
+        bookRepository.deleteAll();
+
+        myBookId = bookRepository.save(new BookEntity(
+                "Animal Farm",
+                "Description Test 01",
+                LocalDate.parse("1945-08-17"),
+                "123456",
+                "https://image.com/animal-farm.jpg",
+                29.90,
+                10,
+                Condition.NEW,
+                CoverType.HARDCOVER,
+                Language.EN_GB
+        )).getId();
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should broadcast committed changes")
+    @Order(1)
+    void shouldBroadcastCommittedChanges() {
+        EntityChangedMessage message = rabbitTemplate.published().stream()
+                .filter(published -> published.ids().contains(myBookId))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        Assertions.assertEquals(clusterCacheInvalidation.node(), message.node());
+        Assertions.assertEquals(BookEntity.class.getName(), message.entity());
+        Assertions.assertEquals(EntityChangedEvent.Action.SAVED, message.action());
+    }
+
+    @Test
+    @DisplayName("should refresh local caches on change from another node")
+    @Order(2)
+    void shouldRefreshLocalCachesOnChangeFromAnotherNode() {
+        Assertions.assertEquals("Animal Farm", bookService.findById(myBookId).getTitle());
+
+        jdbcTemplate.update("update tb_book set title = ? where id = ?", "Burmese Days", myBookId);
+
+        Assertions.assertEquals("Animal Farm", bookService.findById(myBookId).getTitle());
+
+        clusterCacheInvalidation.onMessage(new EntityChangedMessage(
+                "other-node", BookEntity.class.getName(), List.of(myBookId), EntityChangedEvent.Action.SAVED
+        ));
+
+        Assertions.assertEquals("Burmese Days", bookService.findById(myBookId).getTitle());
+        Assertions.assertEquals(List.of(myBookId), titleIndex.search("burmese", 10));
+        Assertions.assertEquals(List.of(), titleIndex.search("animal", 10));
+    }
+
+    @Test
+    @DisplayName("should drop local entries on delete from another node")
+    @Order(3)
+    void shouldDropLocalEntriesOnDeleteFromAnotherNode() {
+        Assertions.assertEquals("Animal Farm", bookService.findById(myBookId).getTitle());
+
+        jdbcTemplate.update("delete from tb_book where id = ?", myBookId);
+
+        clusterCacheInvalidation.onMessage(new EntityChangedMessage(
+                "other-node", BookEntity.class.getName(), List.of(myBookId), EntityChangedEvent.Action.DELETED
+        ));
+
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findById(myBookId));
+        Assertions.assertEquals(List.of(), titleIndex.search("animal", 10));
+    }
+
+    @Test
+    @DisplayName("should refresh local caches on bulk change from another node")
+    @Order(4)
+    void shouldRefreshLocalCachesOnBulkChangeFromAnotherNode() {
+        UUID goneBookId = UUID.randomUUID();
+
+        Assertions.assertEquals("Animal Farm", bookService.findById(myBookId).getTitle());
+
+        jdbcTemplate.update("update tb_book set title = ? where id = ?", "Burmese Days", myBookId);
+
+        clusterCacheInvalidation.onMessage(new EntityChangedMessage(
+                "other-node", BookEntity.class.getName(), List.of(myBookId, goneBookId), EntityChangedEvent.Action.SAVED
+        ));
+
+        Assertions.assertEquals("Burmese Days", bookService.findById(myBookId).getTitle());
+        Assertions.assertEquals(List.of(myBookId), titleIndex.search("burmese", 10));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findById(goneBookId));
+    }
+
+    @Test
+    @DisplayName("should drop only the reserved book on reservation from another node")
+    @Order(5)
+    void shouldDropOnlyTheReservedBookOnReservationFromAnotherNode() {
+        Assertions.assertEquals(10, bookService.findById(myBookId).getStock());
+
+        jdbcTemplate.update("update tb_book set stock = 4, title = ? where id = ?", "Burmese Days", myBookId);
+
+        clusterCacheInvalidation.onMessage(new EntityChangedMessage(
+                "other-node", BookEntity.class.getName(), List.of(myBookId), EntityChangedEvent.Action.SAVED, 4
+        ));
+
+        Assertions.assertEquals(4, bookService.findById(myBookId).getStock());
+        Assertions.assertEquals(List.of(myBookId), titleIndex.search("animal", 10));
+    }
+
+    @Test
+    @DisplayName("should rebuild local state on bulk delete from another node")
+    @Order(6)
+    void shouldRebuildLocalStateOnBulkDeleteFromAnotherNode() {
+        Assertions.assertEquals("Animal Farm", bookService.findById(myBookId).getTitle());
+
+        jdbcTemplate.update("delete from tb_book where id = ?", myBookId);
+
+        clusterCacheInvalidation.onMessage(new EntityChangedMessage(
+                "other-node", BookEntity.class.getName(), List.of(), EntityChangedEvent.Action.DELETED
+        ));
+
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findById(myBookId));
+        Assertions.assertEquals(List.of(), titleIndex.search("animal", 10));
+    }
+
+    @Test
+    @DisplayName("should count changes that could not be broadcast")
+    @Order(7)
+    void shouldCountChangesThatCouldNotBeBroadcast() {
+        long failures = clusterCacheInvalidation.sendFailures();
+        BookEntity book = bookRepository.findById(myBookId).orElseThrow();
+        book.setTitle("Burmese Days");
+
+        rabbitTemplate.setUnavailable(true);
+        try {
+            bookRepository.save(book);
+        } finally {
+            rabbitTemplate.setUnavailable(false);
+        }
+
+        Assertions.assertEquals(failures + 1, clusterCacheInvalidation.sendFailures());
+        Assertions.assertEquals(List.of(myBookId), titleIndex.search("burmese", 10));
+    }
+}
@@ -0,0 +1,65 @@
+package org.hygorp.bookmarketplace.repositories;
+
+import org.hygorp.bookmarketplace.entities.UserEntity;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("NormalizedUsernameSchemaTests")
+public class NormalizedUsernameSchemaTest {
+    @Autowired
+    private NormalizedUsernameSchema normalizedUsernameSchema;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID myUserId01;
+    private UUID myUserId02;
+
+    @BeforeEach
+    void beforeEach() {
+        userRepository.deleteAll();
+
+        myUserId01 = userRepository.save(new UserEntity("Joseph", "123", "client")).getId();
+        myUserId02 = userRepository.save(new UserEntity("Hannah", "123", "client")).getId();
+
+        jdbcTemplate.update("update tb_user set normalized_username = null");
+    }
+
+    @AfterEach
+    void afterEach() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should backfill normalized usernames")
+    @Order(1)
+    void shouldBackfillNormalizedUsernames() {
+        normalizedUsernameSchema.initialize();
+
+        Assertions.assertEquals(myUserId01, userRepository.findByNormalizedUsername("joseph").orElseThrow().getId());
+        Assertions.assertEquals(myUserId02, userRepository.findByNormalizedUsername("hannah").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("should refuse to backfill usernames that differ only by case")
+    @Order(2)
+    void shouldRefuseToBackfillUsernamesThatDifferOnlyByCase() {
+        jdbcTemplate.update("update tb_user set username = 'JOSEPH' where username = 'Hannah'");
+
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, normalizedUsernameSchema::initialize);
+
+        Assertions.assertTrue(exception.getMessage().contains("joseph"));
+        Assertions.assertTrue(userRepository.findByNormalizedUsername("joseph").isEmpty());
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -162,4 +163,101 @@ public class AuthorResourceTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent()).andReturn();
     }
+
+    @Test
+    @DisplayName("should suggest authors and return http 200 status")
+    @Order(7)
+    void shouldSuggestAuthorsAndReturnHttp200Status() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/v1/authors/suggest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("prefix", "orw"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = objectMapper.readTree(response.getResponse().getContentAsString());
+
+        Assertions.assertEquals(1, body.size());
+        Assertions.assertEquals("George Orwell", body.get(0).get("name").asText());
+    }
+
+    @Test
+    @DisplayName("should patch only the given fields and return http 204 status")
+    @Order(8)
+    void shouldPatchOnlyTheGivenFieldsAndReturnHttp204Status() throws Exception {
+        Long version = authorRepository.findById(myAuthorId02).orElseThrow().getVersion();
+
+        mockMvc.perform(patch("/api/v1/authors/update/" + myAuthorId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                        .content("{\"name\": \"J.K Rowling - (Patched)\", \"image\": null}"))
+                .andExpect(status().isNoContent());
+
+        AuthorEntity author = authorRepository.findById(myAuthorId02).orElseThrow();
+
+        Assertions.assertEquals("J.K Rowling - (Patched)", author.getName());
+        Assertions.assertNull(author.getImage());
+        Assertions.assertTrue(author.getBiography().startsWith("Joanne 'Jo' Rowling"));
+        Assertions.assertEquals(version + 1, author.getVersion());
+
+        mockMvc.perform(patch("/api/v1/authors/update/" + myAuthorId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                        .content("{\"name\": \"J.K Rowling - (Stale)\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/v1/authors/update/" + myAuthorId02)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"name\": \"J.K Rowling - (Unconditional)\"}"))
+                .andExpect(status().isPreconditionRequired());
+
+        Assertions.assertEquals("J.K Rowling - (Patched)", authorRepository.findById(myAuthorId02).orElseThrow().getName());
+
+        mockMvc.perform(patch("/api/v1/authors/update/" + myAuthorId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"name\": null}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/authors/update/" + UUID.randomUUID())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"name\": \"Nobody\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should return http 304 status for unchanged author")
+    @Order(9)
+    void shouldReturnHttp304StatusForUnchangedAuthor() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/v1/authors/find-by-id/" + myAuthorId01)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+
+        String etag = response.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = response.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        Assertions.assertNotNull(etag);
+        Assertions.assertNotNull(lastModified);
+
+        mockMvc.perform(get("/api/v1/authors/find-by-id/" + myAuthorId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/v1/authors/find-by-id/" + myAuthorId01)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        authorRepository.save(new AuthorEntity("Aldous Huxley", "English writer and philosopher.", "https://image.com/aldous_huxley.jpg"));
+
+        mockMvc.perform(get("/api/v1/authors/find-by-id/" + myAuthorId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        AuthorEntity author = authorRepository.findById(myAuthorId01).orElseThrow();
+        author.setName(author.getName() + " - (Edited)");
+        authorRepository.save(author);
+
+        mockMvc.perform(get("/api/v1/authors/find-by-id/" + myAuthorId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
 }
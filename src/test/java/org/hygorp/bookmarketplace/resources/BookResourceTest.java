@@ -3,6 +3,7 @@ package org.hygorp.bookmarketplace.resources;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.awaitility.Awaitility;
 import org.hygorp.bookmarketplace.entities.BookEntity;
 import org.hygorp.bookmarketplace.enums.Condition;
 import org.hygorp.bookmarketplace.enums.CoverType;
@@ -13,15 +14,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -84,13 +89,15 @@ public class BookResourceTest {
     @DisplayName("should return two books and http 200 status")
     @Order(1)
     void shouldReturnTwoBooksAndHttp200Status() throws Exception {
-        MvcResult response = mockMvc.perform(get("/api/v1/books/find-all")
-                .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk()).andReturn();
-
-        JsonNode body = objectMapper.readTree(response.getResponse().getContentAsString());
+        JsonNode body = Awaitility.await().atMost(Duration.ofSeconds(5)).until(
+                () -> objectMapper.readTree(mockMvc.perform(get("/api/v1/books/find-all")
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString()),
+                revalidated -> revalidated.get("content").size() == 2
+        );
 
-        Assertions.assertEquals(2, body.get("content").size());
+        Assertions.assertTrue(body.get("content").get(0).has("authors"));
+        Assertions.assertFalse(body.get("content").get(0).has("description"));
     }
 
     @Test
@@ -187,4 +194,186 @@ public class BookResourceTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent()).andReturn();
     }
+
+    @Test
+    @DisplayName("should search books and return http 200 status")
+    @Order(7)
+    void shouldSearchBooksAndReturnHttp200Status() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/v1/books/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("query", "test 02"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = objectMapper.readTree(response.getResponse().getContentAsString());
+
+        Assertions.assertEquals(1, body.get("content").size());
+        Assertions.assertEquals(myBookId02, UUID.fromString(body.get("content").get(0).get("id").asText()));
+    }
+
+    @Test
+    @DisplayName("should browse books by facets and return http 200 status")
+    @Order(8)
+    void shouldBrowseBooksByFacetsAndReturnHttp200Status() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/v1/books/browse")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("condition", "USED")
+                .param("maxPrice", "40"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = objectMapper.readTree(response.getResponse().getContentAsString());
+
+        Assertions.assertEquals(1, body.get("books").get("content").size());
+        Assertions.assertEquals(myBookId02, UUID.fromString(body.get("books").get("content").get(0).get("id").asText()));
+        Assertions.assertEquals(1, body.get("facets").get("condition").get("USED").asInt());
+    }
+
+    @Test
+    @DisplayName("should return books by ids and http 200 status")
+    @Order(9)
+    void shouldReturnBooksByIdsAndHttp200Status() throws Exception {
+        UUID unknownId = UUID.randomUUID();
+
+        MvcResult response = mockMvc.perform(post("/api/v1/books/find-by-ids")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(myBookId02, unknownId, myBookId01))))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = objectMapper.readTree(response.getResponse().getContentAsString());
+
+        Assertions.assertEquals(2, body.get("books").size());
+        Assertions.assertEquals(myBookId02, UUID.fromString(body.get("books").get(0).get("id").asText()));
+        Assertions.assertEquals(unknownId, UUID.fromString(body.get("missing").get(0).asText()));
+    }
+
+    @Test
+    @DisplayName("should return http 304 status for unchanged book and http 200 status after update")
+    @Order(10)
+    void shouldReturnHttp304StatusForUnchangedBookAndHttp200StatusAfterUpdate() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/v1/books/find-by-id/" + myBookId01)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+
+        String etag = response.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = response.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        Assertions.assertNotNull(etag);
+        Assertions.assertNotNull(lastModified);
+
+        MvcResult notModified = mockMvc.perform(get("/api/v1/books/find-by-id/" + myBookId01)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified()).andReturn();
+
+        Assertions.assertEquals("", notModified.getResponse().getContentAsString());
+        Assertions.assertEquals(List.of(etag), notModified.getResponse().getHeaders(HttpHeaders.ETAG));
+
+        mockMvc.perform(get("/api/v1/books/find-by-id/" + myBookId01)
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        BookEntity book = bookRepository.findById(myBookId01).orElseThrow();
+        book.setTitle("Book Test 01 - (Edited)");
+        bookRepository.save(book);
+
+        MvcResult modified = mockMvc.perform(get("/api/v1/books/find-by-id/" + myBookId01)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertNotEquals(etag, modified.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("should return http 304 status for unchanged book page")
+    @Order(11)
+    void shouldReturnHttp304StatusForUnchangedBookPage() throws Exception {
+        MvcResult response = Awaitility.await().atMost(Duration.ofSeconds(5)).until(
+                () -> mockMvc.perform(get("/api/v1/books/find-all")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk()).andReturn(),
+                revalidated -> revalidated.getResponse().getHeader(HttpHeaders.ETAG) != null
+        );
+
+        String etag = response.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = response.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/v1/books/find-all")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/v1/books/find-all")
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/v1/books/find-all")
+                .param("size", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        bookRepository.deleteById(myBookId02);
+
+        MvcResult stale = mockMvc.perform(get("/api/v1/books/find-all")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertNull(stale.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("should import csv books and stream progress with http 200 status")
+    @Order(12)
+    void shouldImportCsvBooksAndStreamProgressWithHttp200Status() throws Exception {
+        String csv = """
+                title,description,publishedDate,isbn,image,price,stock,condition,coverType,language
+                Book Test 03,Description Test 03,1970-01-01,111111,https://image.com/book-test-03.jpg,12.5,3,NEW,HARDCOVER,PT_BR
+                Book Test 04,Description Test 04,1970-01-01,222222,https://image.com/book-test-04.jpg,-1,3,NEW,HARDCOVER,PT_BR
+                """;
+
+        MvcResult started = mockMvc.perform(post("/api/v1/books/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        MvcResult response = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk()).andReturn();
+
+        List<JsonNode> lines = response.getResponse().getContentAsString().lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+        }).toList();
+
+        JsonNode last = lines.getLast();
+
+        Assertions.assertEquals(2, last.get("processed").asLong());
+        Assertions.assertEquals(1, last.get("imported").asLong());
+        Assertions.assertEquals(1, last.get("failed").asLong());
+        Assertions.assertTrue(last.get("done").asBoolean());
+        Assertions.assertTrue(lines.stream().anyMatch(line -> line.has("error") && line.get("row").asLong() == 2));
+        Assertions.assertEquals(3, bookRepository.count());
+
+        mockMvc.perform(post("/api/v1/books/import")
+                .param("sellerId", UUID.randomUUID().toString())
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("should reserve stock and return http 409 status when it runs out")
+    @Order(13)
+    void shouldReserveStockAndReturnHttp409StatusWhenItRunsOut() throws Exception {
+        MvcResult response = mockMvc.perform(post("/api/v1/books/reserve/" + myBookId01)
+                .param("quantity", "10"))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertEquals(0, objectMapper.readTree(response.getResponse().getContentAsString()).get("stock").asInt());
+
+        mockMvc.perform(post("/api/v1/books/reserve/" + myBookId01))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/v1/books/reserve/" + myBookId01)
+                .param("quantity", "-1"))
+                .andExpect(status().isBadRequest());
+    }
 }
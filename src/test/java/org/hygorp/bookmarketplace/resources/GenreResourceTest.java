@@ -3,18 +3,24 @@ package org.hygorp.bookmarketplace.resources;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.awaitility.Awaitility;
+import org.hygorp.bookmarketplace.cache.ResponseCacheFilter;
 import org.hygorp.bookmarketplace.entities.GenreEntity;
 import org.hygorp.bookmarketplace.repositories.GenreRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -61,13 +67,12 @@ public class GenreResourceTest {
     @DisplayName("should return two genres and http 200 status")
     @Order(1)
     void shouldReturnTwoGenresAndHttp200Status() throws Exception {
-        MvcResult response = mockMvc.perform(get("/api/v1/genres/find-all")
-                        .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk()).andReturn();
-
-        JsonNode body = objectMapper.readTree(response.getResponse().getContentAsString());
-
-        Assertions.assertEquals(2, body.get("content").size());
+        JsonNode body = Awaitility.await().atMost(Duration.ofSeconds(5)).until(
+                () -> objectMapper.readTree(mockMvc.perform(get("/api/v1/genres/find-all")
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString()),
+                revalidated -> revalidated.get("content").size() == 2
+        );
     }
 
     @Test
@@ -155,4 +160,141 @@ public class GenreResourceTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent()).andReturn();
     }
+
+    @Test
+    @DisplayName("should serve cached genre page until a genre changes")
+    @Order(7)
+    void shouldServeCachedGenrePageUntilAGenreChanges() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/v1/genres/find-all?size=10&page=0"))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult second = mockMvc.perform(get("/api/v1/genres/find-all?page=0&size=10"))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertEquals("MISS", first.getResponse().getHeader(ResponseCacheFilter.CACHE_HEADER));
+        Assertions.assertEquals("HIT", second.getResponse().getHeader(ResponseCacheFilter.CACHE_HEADER));
+        Assertions.assertEquals(HttpHeaders.ACCEPT_ENCODING, first.getResponse().getHeader(HttpHeaders.VARY));
+        Assertions.assertEquals(HttpHeaders.ACCEPT_ENCODING, second.getResponse().getHeader(HttpHeaders.VARY));
+        Assertions.assertEquals(first.getResponse().getContentAsString(), second.getResponse().getContentAsString());
+
+        mockMvc.perform(put("/api/v1/genres/update/" + myGenreId02)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new GenreEntity(
+                                "Romance - (Edited)",
+                                "https://image.com/romance.jpg"
+                        ))))
+                .andExpect(status().isOk());
+
+        MvcResult third = mockMvc.perform(get("/api/v1/genres/find-all?page=0&size=10"))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertEquals("MISS", third.getResponse().getHeader(ResponseCacheFilter.CACHE_HEADER));
+
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> {
+            MvcResult revalidated = mockMvc.perform(get("/api/v1/genres/find-all?page=0&size=10"))
+                    .andExpect(status().isOk()).andReturn();
+
+            return revalidated.getResponse().getContentAsString().contains("Romance - (Edited)");
+        });
+    }
+
+    @Test
+    @DisplayName("should serve gzipped cached genre page when accepted")
+    @Order(8)
+    void shouldServeGzippedCachedGenrePageWhenAccepted() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            genreRepository.save(new GenreEntity("Genre Test " + i, "https://image.com/genre-test-" + i + ".jpg"));
+        }
+
+        MvcResult first = mockMvc.perform(get("/api/v1/genres/find-all?size=50"))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult second = mockMvc.perform(get("/api/v1/genres/find-all?size=50")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertEquals("gzip", second.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(second.getResponse().getContentAsByteArray()))) {
+            Assertions.assertArrayEquals(first.getResponse().getContentAsByteArray(), gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("should return http 304 status for unchanged genre")
+    @Order(9)
+    void shouldReturnHttp304StatusForUnchangedGenre() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/v1/genres/find-by-id/" + myGenreId01)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+
+        String etag = response.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = response.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        Assertions.assertNotNull(etag);
+        Assertions.assertNotNull(lastModified);
+
+        mockMvc.perform(get("/api/v1/genres/find-by-id/" + myGenreId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/v1/genres/find-by-id/" + myGenreId01)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        genreRepository.save(new GenreEntity("Poetry", "https://image.com/poetry.jpg"));
+
+        mockMvc.perform(get("/api/v1/genres/find-by-id/" + myGenreId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        GenreEntity genre = genreRepository.findById(myGenreId01).orElseThrow();
+        genre.setName(genre.getName() + " - (Edited)");
+        genreRepository.save(genre);
+
+        mockMvc.perform(get("/api/v1/genres/find-by-id/" + myGenreId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("should patch only the given fields and return http 204 status")
+    @Order(10)
+    void shouldPatchOnlyTheGivenFieldsAndReturnHttp204Status() throws Exception {
+        Long version = genreRepository.findById(myGenreId02).orElseThrow().getVersion();
+
+        mockMvc.perform(patch("/api/v1/genres/update/" + myGenreId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                        .content("{\"name\": \"Romance - (Patched)\"}"))
+                .andExpect(status().isNoContent());
+
+        GenreEntity genre = genreRepository.findById(myGenreId02).orElseThrow();
+
+        Assertions.assertEquals("Romance - (Patched)", genre.getName());
+        Assertions.assertNotNull(genre.getImage());
+    }
+
+    @Test
+    @DisplayName("shouldn't patch invalid fields or unknown genre and return http 400 status")
+    @Order(11)
+    void shouldNotPatchInvalidFieldsOrUnknownGenreAndReturnHttp400Status() throws Exception {
+        mockMvc.perform(patch("/api/v1/genres/update/" + myGenreId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"books\": []}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/genres/update/" + myGenreId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"name\": null}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/genres/update/" + UUID.randomUUID())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"name\": \"Nothing\"}"))
+                .andExpect(status().isBadRequest());
+
+        Assertions.assertNotEquals("Nothing", genreRepository.findById(myGenreId02).orElseThrow().getName());
+    }
 }
@@ -3,17 +3,20 @@ package org.hygorp.bookmarketplace.resources;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.awaitility.Awaitility;
 import org.hygorp.bookmarketplace.entities.PublisherEntity;
 import org.hygorp.bookmarketplace.repositories.PublisherRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -61,13 +64,12 @@ public class PublisherResourceTest {
     @DisplayName("should return two publishers and http 200 status")
     @Order(1)
     void shouldReturnTwoPublishersAndHttp200Status() throws Exception {
-        MvcResult response = mockMvc.perform(get("/api/v1/publishers/find-all")
-                        .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk()).andReturn();
-
-        JsonNode body = objectMapper.readTree(response.getResponse().getContentAsString());
-
-        Assertions.assertEquals(2, body.get("content").size());
+        JsonNode body = Awaitility.await().atMost(Duration.ofSeconds(5)).until(
+                () -> objectMapper.readTree(mockMvc.perform(get("/api/v1/publishers/find-all")
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString()),
+                revalidated -> revalidated.get("content").size() == 2
+        );
     }
 
     @Test
@@ -155,4 +157,84 @@ public class PublisherResourceTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent()).andReturn();
     }
+
+    @Test
+    @DisplayName("should return http 304 status for unchanged publisher")
+    @Order(7)
+    void shouldReturnHttp304StatusForUnchangedPublisher() throws Exception {
+        MvcResult response = mockMvc.perform(get("/api/v1/publishers/find-by-id/" + myPublisherId01)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+
+        String etag = response.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = response.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        Assertions.assertNotNull(etag);
+        Assertions.assertNotNull(lastModified);
+
+        mockMvc.perform(get("/api/v1/publishers/find-by-id/" + myPublisherId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/v1/publishers/find-by-id/" + myPublisherId01)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        publisherRepository.save(new PublisherEntity("Publisher Test 03", "https://image.com/publisher-03-test.jpg"));
+
+        mockMvc.perform(get("/api/v1/publishers/find-by-id/" + myPublisherId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        PublisherEntity publisher = publisherRepository.findById(myPublisherId01).orElseThrow();
+        publisher.setName(publisher.getName() + " - (Edited)");
+        publisherRepository.save(publisher);
+
+        mockMvc.perform(get("/api/v1/publishers/find-by-id/" + myPublisherId01)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("should patch only the given fields and return http 204 status")
+    @Order(8)
+    void shouldPatchOnlyTheGivenFieldsAndReturnHttp204Status() throws Exception {
+        Long version = publisherRepository.findById(myPublisherId02).orElseThrow().getVersion();
+
+        mockMvc.perform(patch("/api/v1/publishers/update/" + myPublisherId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                        .content("{\"logo\": null}"))
+                .andExpect(status().isNoContent());
+
+        PublisherEntity publisher = publisherRepository.findById(myPublisherId02).orElseThrow();
+
+        Assertions.assertNull(publisher.getLogo());
+        Assertions.assertNotNull(publisher.getName());
+    }
+
+    @Test
+    @DisplayName("shouldn't patch invalid fields or unknown publisher and return http 400 status")
+    @Order(9)
+    void shouldNotPatchInvalidFieldsOrUnknownPublisherAndReturnHttp400Status() throws Exception {
+        mockMvc.perform(patch("/api/v1/publishers/update/" + myPublisherId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"id\": \"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/publishers/update/" + myPublisherId02)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("[\"name\"]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/publishers/update/" + UUID.randomUUID())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"name\": \"Nobody\"}"))
+                .andExpect(status().isBadRequest());
+
+        Assertions.assertTrue(publisherRepository.findById(myPublisherId02).isPresent());
+    }
 }
@@ -4,22 +4,32 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.hygorp.bookmarketplace.entities.AddressEntity;
+import org.hygorp.bookmarketplace.entities.BookEntity;
 import org.hygorp.bookmarketplace.entities.SellerEntity;
 import org.hygorp.bookmarketplace.entities.UserEntity;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.repositories.AddressRepository;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
 import org.hygorp.bookmarketplace.repositories.SellerRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -31,6 +41,12 @@ public class SellerResourceTest {
     @Autowired
     private SellerRepository sellerRepository;
 
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -82,6 +98,7 @@ public class SellerResourceTest {
 
     @AfterEach
     void afterEach() {
+        bookRepository.deleteAll();
         sellerRepository.deleteAll();
     }
 
@@ -99,4 +116,182 @@ public class SellerResourceTest {
 
         System.out.println(body);
     }
+
+    @Test
+    @DisplayName("should return sellers by cursor and http 200 status")
+    @Order(2)
+    void shouldReturnSellersByCursorAndHttp200Status() throws Exception {
+        MvcResult firstResponse = mockMvc.perform(get("/api/v1/sellers/find-all-by-cursor")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("size", "1"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode firstPage = objectMapper.readTree(firstResponse.getResponse().getContentAsString());
+
+        Assertions.assertEquals(1, firstPage.get("content").size());
+        Assertions.assertEquals("Seller Test 01", firstPage.get("content").get(0).get("name").asText());
+
+        MvcResult secondResponse = mockMvc.perform(get("/api/v1/sellers/find-all-by-cursor")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("size", "1")
+                .param("cursor", firstPage.get("next").asText()))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode secondPage = objectMapper.readTree(secondResponse.getResponse().getContentAsString());
+
+        Assertions.assertEquals("Seller Test 02", secondPage.get("content").get(0).get("name").asText());
+        Assertions.assertTrue(secondPage.get("next").isNull());
+    }
+
+    @Test
+    @DisplayName("shouldn't return sellers by malformed cursor and return http 400 status")
+    @Order(3)
+    void shouldNotReturnSellersByMalformedCursorAndReturnHttp400Status() throws Exception {
+        mockMvc.perform(get("/api/v1/sellers/find-all-by-cursor")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("shouldn't return books of unknown seller and return http 404 status")
+    @Order(4)
+    void shouldNotReturnBooksOfUnknownSellerAndReturnHttp404Status() throws Exception {
+        mockMvc.perform(get("/api/v1/sellers/" + UUID.randomUUID() + "/books")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("should return http 304 status for unchanged seller books")
+    @Order(5)
+    void shouldReturnHttp304StatusForUnchangedSellerBooks() throws Exception {
+        SellerEntity seller = sellerRepository.findAll().get(0);
+
+        MvcResult response = mockMvc.perform(get("/api/v1/sellers/" + seller.getId() + "/books")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+
+        String etag = response.getResponse().getHeader(HttpHeaders.ETAG);
+
+        Assertions.assertNotNull(etag);
+        Assertions.assertNotNull(response.getResponse().getHeader(HttpHeaders.LAST_MODIFIED));
+
+        mockMvc.perform(get("/api/v1/sellers/" + seller.getId() + "/books")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        seller.setName(seller.getName() + " - (Edited)");
+        sellerRepository.save(seller);
+
+        mockMvc.perform(get("/api/v1/sellers/" + seller.getId() + "/books")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("should patch only the given fields and return http 204 status")
+    @Order(6)
+    void shouldPatchOnlyTheGivenFieldsAndReturnHttp204Status() throws Exception {
+        SellerEntity before = sellerRepository.findAll().get(0);
+        UUID sellerId = before.getId();
+
+        mockMvc.perform(patch("/api/v1/sellers/update/" + sellerId)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"" + before.getVersion() + "\"")
+                        .content("{\"phone\": \"558130000000\"}"))
+                .andExpect(status().isNoContent());
+
+        SellerEntity seller = sellerRepository.findById(sellerId).orElseThrow();
+
+        Assertions.assertEquals("558130000000", seller.getPhone());
+        Assertions.assertNotNull(seller.getName());
+    }
+
+    @Test
+    @DisplayName("shouldn't patch credentials or unknown seller and return http 400 status")
+    @Order(7)
+    void shouldNotPatchCredentialsOrUnknownSellerAndReturnHttp400Status() throws Exception {
+        SellerEntity seller = sellerRepository.findAll().get(0);
+
+        mockMvc.perform(patch("/api/v1/sellers/update/" + seller.getId())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"credentials\": {\"password\": \"654321\"}}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/sellers/update/" + seller.getId())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"name\": null}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/v1/sellers/update/" + UUID.randomUUID())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"name\": \"Nobody\"}"))
+                .andExpect(status().isBadRequest());
+
+        Assertions.assertEquals(seller.getName(), sellerRepository.findById(seller.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("should show patched seller on cached books")
+    @Order(8)
+    void shouldShowPatchedSellerOnCachedBooks() throws Exception {
+        SellerEntity seller = sellerRepository.findAll().get(0);
+        BookEntity book = new BookEntity(
+                "Seller Book 01",
+                "Description of Seller Book 01",
+                LocalDate.parse("1970-01-01"),
+                "123456",
+                "https://image.com/seller-book.jpg",
+                25.90,
+                3,
+                Condition.NEW,
+                CoverType.SOFTCOVER,
+                Language.PT_BR
+        );
+        book.setSeller(seller);
+        UUID bookId = bookRepository.save(book).getId();
+
+        MvcResult cached = mockMvc.perform(get("/api/v1/books/find-by-id/" + bookId))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertEquals(seller.getName(), objectMapper.readTree(cached.getResponse().getContentAsString()).get("seller").get("name").asText());
+
+        mockMvc.perform(patch("/api/v1/sellers/update/" + seller.getId())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"name\": \"Seller Test 01 - (Patched)\"}"))
+                .andExpect(status().isNoContent());
+
+        MvcResult refreshed = mockMvc.perform(get("/api/v1/books/find-by-id/" + bookId))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertEquals("Seller Test 01 - (Patched)", objectMapper.readTree(refreshed.getResponse().getContentAsString()).get("seller").get("name").asText());
+    }
+
+    @Test
+    @DisplayName("should miss the response cache after an address update")
+    @Order(9)
+    void shouldMissTheResponseCacheAfterAnAddressUpdate() throws Exception {
+        mockMvc.perform(get("/api/v1/sellers/find-all"))
+                .andExpect(status().isOk());
+
+        MvcResult cached = mockMvc.perform(get("/api/v1/sellers/find-all"))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertEquals("HIT", cached.getResponse().getHeader("X-Response-Cache"));
+
+        AddressEntity address = sellerRepository.findAll().get(0).getAddress();
+        address.setCity("Olinda");
+        addressRepository.save(address);
+
+        MvcResult refreshed = mockMvc.perform(get("/api/v1/sellers/find-all"))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertEquals("MISS", refreshed.getResponse().getHeader("X-Response-Cache"));
+        Assertions.assertTrue(refreshed.getResponse().getContentAsString().contains("Olinda"));
+    }
 }
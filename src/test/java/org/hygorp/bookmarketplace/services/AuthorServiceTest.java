@@ -1,6 +1,7 @@
 package org.hygorp.bookmarketplace.services;
 
 import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.records.Suggestion;
 import org.hygorp.bookmarketplace.repositories.AuthorRepository;
 import org.hygorp.bookmarketplace.services.exceptions.AuthorServiceException;
 import org.junit.jupiter.api.*;
@@ -10,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -145,4 +147,29 @@ public class AuthorServiceTest {
 
         Assertions.assertThrows(AuthorServiceException.class, () -> authorService.findById(myAuthorId01));
     }
+
+    @Test
+    @DisplayName("should suggest authors by name and surname prefix")
+    @Order(9)
+    void shouldSuggestAuthorsByNameAndSurnamePrefix() {
+        List<Suggestion> byName = Assertions.assertDoesNotThrow(() -> authorService.suggest("geo", 10));
+        List<Suggestion> bySurname = Assertions.assertDoesNotThrow(() -> authorService.suggest("ROWL", 10));
+
+        Assertions.assertEquals(List.of(new Suggestion(myAuthorId01, "George Orwell")), byName);
+        Assertions.assertEquals(List.of(new Suggestion(myAuthorId02, "J.K Rowling")), bySurname);
+    }
+
+    @Test
+    @DisplayName("should follow author renames and deletes in suggestions")
+    @Order(10)
+    void shouldFollowAuthorRenamesAndDeletesInSuggestions() {
+        AuthorEntity author = authorService.findById(myAuthorId01);
+        author.setName("Eric Blair");
+        authorService.update(myAuthorId01, author);
+        authorService.delete(myAuthorId02);
+
+        Assertions.assertTrue(authorService.suggest("george", 10).isEmpty());
+        Assertions.assertTrue(authorService.suggest("rowling", 10).isEmpty());
+        Assertions.assertEquals(List.of(new Suggestion(myAuthorId01, "Eric Blair")), authorService.suggest("blair", 10));
+    }
 }
@@ -0,0 +1,189 @@
+package org.hygorp.bookmarketplace.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hygorp.bookmarketplace.entities.AuthorEntity;
+import org.hygorp.bookmarketplace.entities.BookEntity;
+import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.entities.PublisherEntity;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.imports.BookRowReader;
+import org.hygorp.bookmarketplace.records.BookImportError;
+import org.hygorp.bookmarketplace.records.BookImportProgress;
+import org.hygorp.bookmarketplace.repositories.AuthorRepository;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
+import org.hygorp.bookmarketplace.repositories.GenreRepository;
+import org.hygorp.bookmarketplace.repositories.PublisherRepository;
+import org.hygorp.bookmarketplace.services.exceptions.BookServiceException;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("BookImportServiceTests")
+public class BookImportServiceTest {
+    private static final String CSV_HEADER = "title,description,publishedDate,isbn,image,price,stock,condition,coverType,language,publisher,authors,genres\n";
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private PublisherRepository publisherRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+        publisherRepository.deleteAll();
+
+        authorRepository.save(new AuthorEntity("George Orwell", "Biography Test 01", "https://image.com/orwell.jpg"));
+        authorRepository.save(new AuthorEntity("Aldous Huxley", "Biography Test 02", "https://image.com/huxley.jpg"));
+        genreRepository.save(new GenreEntity("Dystopia", "https://image.com/dystopia.jpg"));
+        publisherRepository.save(new PublisherEntity("Secker & Warburg", "https://image.com/secker.jpg"));
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+        publisherRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should import csv rows with their authors, genres and publisher")
+    @Order(1)
+    void shouldImportCsvRowsWithTheirAuthorsGenresAndPublisher() throws Exception {
+        String csv = CSV_HEADER
+                + "Nineteen Eighty-Four,\"A novel, about Big Brother\",1949-06-08,9780451524935,https://image.com/1984.jpg,39.90,10,NEW,HARDCOVER,en-GB,secker & warburg,George Orwell,Dystopia\n"
+                + "Brave New World,\"Multi\nline\",1932-01-01,9780060850524,https://image.com/bnw.jpg,29.90,5,USED,SOFTCOVER,EN_US,,Aldous Huxley|george orwell,dystopia\n";
+
+        BookImportProgress progress = importCsv(csv);
+
+        Assertions.assertEquals(new BookImportProgress(2, 2, 0, true), progress);
+        Assertions.assertEquals(2, bookRepository.count());
+
+        BookEntity book = bookService.findByTitle("brave new").getFirst();
+
+        Assertions.assertEquals("Multi\nline", book.getDescription());
+        Assertions.assertEquals(2, book.getAuthors().size());
+        Assertions.assertEquals(1, book.getGenres().size());
+        Assertions.assertNull(book.getPublisher());
+
+        BookEntity orwell = bookService.findByTitle("nineteen").getFirst();
+
+        Assertions.assertEquals(Language.EN_GB, orwell.getLanguage());
+        Assertions.assertEquals("Secker & Warburg", orwell.getPublisher().getName());
+    }
+
+    @Test
+    @DisplayName("should report invalid rows and keep importing")
+    @Order(2)
+    void shouldReportInvalidRowsAndKeepImporting() throws Exception {
+        String csv = CSV_HEADER
+                + "Book Test 01,Description,1970-01-01,123,https://image.com/01.jpg,abc,1,NEW,HARDCOVER,EN_US,,,\n"
+                + "Book Test 02,Description,1970-01-01,456,https://image.com/02.jpg,10.0,1,NEW,HARDCOVER,EN_US,,Unknown Writer,\n"
+                + "Book Test 03,Description,1970-01-01,789,https://image.com/03.jpg,10.0,1,NEW,HARDCOVER,EN_US,,,\n"
+                + ",Description,1970-01-01,000,https://image.com/04.jpg,10.0,1,NEW,HARDCOVER,EN_US,,,\n";
+
+        BookImportProgress progress = importCsv(csv);
+
+        Assertions.assertEquals(new BookImportProgress(4, 1, 3, true), progress);
+        Assertions.assertTrue(events.contains(new BookImportError(1, "Invalid price: abc")));
+        Assertions.assertTrue(events.contains(new BookImportError(2, "Unknown author: Unknown Writer")));
+        Assertions.assertTrue(events.contains(new BookImportError(4, "title is required")));
+        Assertions.assertEquals(1, bookRepository.count());
+    }
+
+    @Test
+    @DisplayName("should import ndjson rows and skip malformed lines")
+    @Order(3)
+    void shouldImportNdjsonRowsAndSkipMalformedLines() throws Exception {
+        String ndjson = """
+                {"title":"Animal Farm","description":"Description","publishedDate":"1945-08-17","isbn":"9780451526342","image":"https://image.com/af.jpg","price":19.9,"stock":3,"condition":"NEW","coverType":"SOFTCOVER","language":"EN_GB","authors":["George Orwell"],"genres":["Dystopia"]}
+                {not json
+                
+                {"title":"Island","description":"Description","publishedDate":"1962-01-01","isbn":"9780060085490","image":"https://image.com/island.jpg","price":15,"stock":1,"condition":"GOOD","coverType":"SOFTCOVER","language":"EN_US","authors":"Aldous Huxley"}
+                """;
+
+        BookImportProgress progress;
+
+        try (BookRowReader reader = BookRowReader.of(MediaType.APPLICATION_NDJSON, new StringReader(ndjson), objectMapper)) {
+            progress = bookImportService.importBooks(reader, null, events::add);
+        }
+
+        Assertions.assertEquals(new BookImportProgress(3, 2, 1, true), progress);
+        Assertions.assertTrue(events.contains(new BookImportError(2, "Malformed JSON")));
+        Assertions.assertEquals(1, bookService.findByTitle("island").size());
+    }
+
+    @Test
+    @DisplayName("should not import for unknown seller")
+    @Order(4)
+    void shouldNotImportForUnknownSeller() {
+        Assertions.assertThrows(BookServiceException.class, () -> bookImportService.requireSeller(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("should publish one change event per committed chunk")
+    @Order(5)
+    void shouldPublishOneChangeEventPerCommittedChunk() throws Exception {
+        String csv = CSV_HEADER
+                + "Book Test 01,Description,1970-01-01,123,https://image.com/01.jpg,10.0,1,NEW,HARDCOVER,EN_US,,,\n"
+                + "Book Test 02,Description,1970-01-01,456,https://image.com/02.jpg,20.0,1,NEW,HARDCOVER,EN_US,,,\n"
+                + "Book Test 03,Description,1970-01-01,789,https://image.com/03.jpg,30.0,1,NEW,HARDCOVER,EN_US,,,\n";
+
+        applicationEvents.clear();
+        importCsv(csv);
+
+        List<BooksChangedEvent> changes = applicationEvents.stream(BooksChangedEvent.class).toList();
+
+        Assertions.assertEquals(1, changes.size());
+        Assertions.assertEquals(3, changes.getFirst().books().size());
+        Assertions.assertEquals(EntityChangedEvent.Action.SAVED, changes.getFirst().action());
+        Assertions.assertEquals(0, applicationEvents.stream(EntityChangedEvent.class)
+                .filter(event -> event.entity() instanceof BookEntity)
+                .count());
+        Assertions.assertEquals(3, bookService.findByTitle("book test").size());
+    }
+
+    private BookImportProgress importCsv(String csv) throws Exception {
+        try (BookRowReader reader = BookRowReader.of(BookRowReader.TEXT_CSV, new StringReader(csv), objectMapper)) {
+            return bookImportService.importBooks(reader, null, events::add);
+        }
+    }
+}
@@ -1,31 +1,70 @@
 package org.hygorp.bookmarketplace.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hygorp.bookmarketplace.cache.BookCache;
 import org.hygorp.bookmarketplace.entities.AuthorEntity;
 import org.hygorp.bookmarketplace.entities.BookEntity;
 import org.hygorp.bookmarketplace.entities.GenreEntity;
 import org.hygorp.bookmarketplace.enums.Condition;
 import org.hygorp.bookmarketplace.enums.CoverType;
 import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.events.StockReservedEvent;
+import org.hygorp.bookmarketplace.indexes.BookOrdinals;
+import org.hygorp.bookmarketplace.indexes.FacetIndex;
+import org.hygorp.bookmarketplace.indexes.PriceIndex;
+import org.hygorp.bookmarketplace.records.BookBatch;
+import org.hygorp.bookmarketplace.records.BookFilter;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.records.BulkDeletion;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.FacetedBooks;
+import org.hygorp.bookmarketplace.records.StockReservation;
 import org.hygorp.bookmarketplace.repositories.AuthorRepository;
 import org.hygorp.bookmarketplace.repositories.BookRepository;
 import org.hygorp.bookmarketplace.repositories.GenreRepository;
+import org.hygorp.bookmarketplace.services.exceptions.BookConflictException;
 import org.hygorp.bookmarketplace.services.exceptions.BookServiceException;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @SpringBootTest
 @ActiveProfiles("test")
+@RecordApplicationEvents
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @DisplayName("BookServiceTests")
 public class BookServiceTest {
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     @Autowired
     private GenreRepository genreRepository;
 
@@ -38,6 +77,24 @@ public class BookServiceTest {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookOrdinals bookOrdinals;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
     private UUID myBookId01;
     private UUID myBookId02;
 
@@ -137,7 +194,7 @@ public class BookServiceTest {
     @DisplayName("should return books by title")
     @Order(3)
     void shouldReturnBooksByTitle() {
-        Set<BookEntity> books = Assertions.assertDoesNotThrow(() -> bookService.findByTitle("Book Test"));
+        List<BookEntity> books = Assertions.assertDoesNotThrow(() -> bookService.findByTitle("Book Test"));
 
         Assertions.assertNotNull(books);
         Assertions.assertEquals(2, books.size());
@@ -207,4 +264,478 @@ public class BookServiceTest {
 
         Assertions.assertThrows(BookServiceException.class, () -> bookService.findById(myBookId01));
     }
+
+    @Test
+    @DisplayName("should return book summaries")
+    @Order(9)
+    void shouldReturnBookSummaries() {
+        Page<BookSummary> summaries = Assertions.assertDoesNotThrow(() -> bookService.findAllSummaries(Pageable.ofSize(10)));
+
+        Assertions.assertNotNull(summaries);
+        Assertions.assertEquals(2, summaries.getTotalElements());
+
+        BookSummary summary = summaries.getContent().stream()
+                .filter(book -> book.id().equals(myBookId01))
+                .findFirst()
+                .orElseThrow();
+
+        Assertions.assertEquals("Book Test 01", summary.title());
+        Assertions.assertEquals(Condition.NEW, summary.condition());
+        Assertions.assertEquals(List.of("George Orwell"), summary.authors());
+        Assertions.assertNull(summary.seller());
+    }
+
+    @Test
+    @DisplayName("should page books by cursor")
+    @Order(10)
+    void shouldPageBooksByCursor() {
+        CursorPage<BookSummary> firstPage = Assertions.assertDoesNotThrow(() -> bookService.findAllSummaries(null, 1, true));
+
+        Assertions.assertEquals(1, firstPage.content().size());
+        Assertions.assertEquals("Book Test 01", firstPage.content().get(0).title());
+        Assertions.assertEquals(2, firstPage.totalElements());
+        Assertions.assertNotNull(firstPage.next());
+
+        CursorPage<BookSummary> secondPage = Assertions.assertDoesNotThrow(() -> bookService.findAllSummaries(firstPage.next(), 1, false));
+
+        Assertions.assertEquals(1, secondPage.content().size());
+        Assertions.assertEquals("Book Test 02", secondPage.content().get(0).title());
+        Assertions.assertNull(secondPage.totalElements());
+        Assertions.assertNull(secondPage.next());
+    }
+
+    @Test
+    @DisplayName("shouldn't page books by malformed cursor and throws exception")
+    @Order(11)
+    void shouldNotPageBooksByMalformedCursorAndThrowException() {
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findAllSummaries("not-a-cursor", 10, false));
+    }
+
+    @Test
+    @DisplayName("should search books by title, description and author names")
+    @Order(12)
+    void shouldSearchBooksByTitleDescriptionAndAuthorNames() {
+        Page<BookSummary> byAuthor = Assertions.assertDoesNotThrow(() -> bookService.search("orwell", Pageable.ofSize(10)));
+
+        Assertions.assertEquals(1, byAuthor.getTotalElements());
+        Assertions.assertEquals(myBookId01, byAuthor.getContent().get(0).id());
+
+        Page<BookSummary> byTitleAndAuthor = Assertions.assertDoesNotThrow(() -> bookService.search("test rowling", Pageable.ofSize(10)));
+
+        Assertions.assertEquals(1, byTitleAndAuthor.getTotalElements());
+        Assertions.assertEquals(myBookId02, byTitleAndAuthor.getContent().get(0).id());
+
+        Page<BookSummary> byDescription = Assertions.assertDoesNotThrow(() -> bookService.search("description", Pageable.ofSize(1)));
+
+        Assertions.assertEquals(2, byDescription.getTotalElements());
+        Assertions.assertEquals(1, byDescription.getContent().size());
+    }
+
+    @Test
+    @DisplayName("should rank title matches before description matches")
+    @Order(13)
+    void shouldRankTitleMatchesBeforeDescriptionMatches() {
+        BookEntity book = bookRepository.findById(myBookId01).orElseThrow();
+        book.setDescription("A book about Romance");
+        bookRepository.save(book);
+
+        BookEntity romance = bookRepository.findById(myBookId02).orElseThrow();
+        romance.setTitle("Romance Test 02");
+        bookRepository.save(romance);
+
+        Page<BookSummary> books = Assertions.assertDoesNotThrow(() -> bookService.search("romance", Pageable.ofSize(10)));
+
+        Assertions.assertEquals(List.of(myBookId02, myBookId01), books.getContent().stream().map(BookSummary::id).toList());
+    }
+
+    @Test
+    @DisplayName("shouldn't search books by blank query and throws exception")
+    @Order(14)
+    void shouldNotSearchBooksByBlankQueryAndThrowException() {
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.search(" ", Pageable.ofSize(10)));
+    }
+
+    @Test
+    @DisplayName("should browse books by facets")
+    @Order(15)
+    void shouldBrowseBooksByFacets() {
+        UUID fiction = genreRepository.findAllSuggestions().stream()
+                .filter(genre -> genre.name().equals("Fiction"))
+                .findFirst()
+                .orElseThrow()
+                .id();
+
+        FacetedBooks all = Assertions.assertDoesNotThrow(() -> bookService.browse(
+                new BookFilter(null, null, null, null, null, null, null), Pageable.ofSize(10)
+        ));
+
+        Assertions.assertEquals(2, all.books().getTotalElements());
+        Assertions.assertEquals(Map.of("NEW", 1, "USED", 1), all.facets().get("condition"));
+
+        FacetedBooks byGenre = Assertions.assertDoesNotThrow(() -> bookService.browse(
+                new BookFilter(null, null, null, Set.of(fiction), null, null, null), Pageable.ofSize(10)
+        ));
+
+        Assertions.assertEquals(List.of(myBookId01), byGenre.books().getContent().stream().map(BookSummary::id).toList());
+        Assertions.assertEquals(Map.of("NEW", 1), byGenre.facets().get("condition"));
+        Assertions.assertEquals(2, byGenre.facets().get("genre").size());
+
+        FacetedBooks byPrice = Assertions.assertDoesNotThrow(() -> bookService.browse(
+                new BookFilter(Set.of(Condition.NEW, Condition.USED), null, null, null, null, 50.0, null), Pageable.ofSize(10)
+        ));
+
+        Assertions.assertEquals(List.of(myBookId02), byPrice.books().getContent().stream().map(BookSummary::id).toList());
+    }
+
+    @Test
+    @DisplayName("should keep facets in sync with book updates")
+    @Order(16)
+    void shouldKeepFacetsInSyncWithBookUpdates() {
+        GenreEntity fiction = genreRepository.findAll().stream()
+                .filter(genre -> genre.getName().equals("Fiction"))
+                .findFirst()
+                .orElseThrow();
+
+        BookEntity book = bookService.findById(myBookId02);
+        book.getGenres().add(fiction);
+        bookService.update(myBookId02, book);
+
+        FacetedBooks byGenre = Assertions.assertDoesNotThrow(() -> bookService.browse(
+                new BookFilter(null, null, null, Set.of(fiction.getId()), null, null, null), Pageable.ofSize(10)
+        ));
+
+        Assertions.assertEquals(2, byGenre.books().getTotalElements());
+
+        bookService.delete(myBookId01);
+
+        FacetedBooks afterDelete = Assertions.assertDoesNotThrow(() -> bookService.browse(
+                new BookFilter(null, null, null, Set.of(fiction.getId()), null, null, null), Pageable.ofSize(10)
+        ));
+
+        Assertions.assertEquals(List.of(myBookId02), afterDelete.books().getContent().stream().map(BookSummary::id).toList());
+    }
+
+    @Test
+    @DisplayName("shouldn't browse books by inverted price range and throws exception")
+    @Order(17)
+    void shouldNotBrowseBooksByInvertedPriceRangeAndThrowException() {
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.browse(
+                new BookFilter(null, null, null, null, null, 80.0, 10.0), Pageable.ofSize(10)
+        ));
+    }
+
+    @Test
+    @DisplayName("should return books by isbn in any notation")
+    @Order(18)
+    void shouldReturnBooksByIsbnInAnyNotation() {
+        BookEntity book = bookRepository.findById(myBookId01).orElseThrow();
+        book.setIsbn("978-0-306-40615-7");
+        bookRepository.save(book);
+
+        List<BookEntity> byIsbn10 = Assertions.assertDoesNotThrow(() -> bookService.findByIsbn("0-306-40615-2"));
+        List<BookEntity> byIsbn13 = Assertions.assertDoesNotThrow(() -> bookService.findByIsbn("9780306406157"));
+
+        Assertions.assertEquals(List.of(myBookId01), byIsbn10.stream().map(BookEntity::getId).toList());
+        Assertions.assertEquals(List.of(myBookId01), byIsbn13.stream().map(BookEntity::getId).toList());
+        Assertions.assertTrue(bookService.findByIsbn("978-0-451-52634-2").isEmpty());
+    }
+
+    @Test
+    @DisplayName("shouldn't return books by blank isbn and throws exception")
+    @Order(19)
+    void shouldNotReturnBooksByBlankIsbnAndThrowException() {
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findByIsbn(" "));
+    }
+
+    @Test
+    @DisplayName("should return books by price range sorted by price")
+    @Order(20)
+    void shouldReturnBooksByPriceRangeSortedByPrice() {
+        Page<BookSummary> ascending = Assertions.assertDoesNotThrow(() -> bookService.findByPrice(null, null, Pageable.ofSize(10)));
+
+        Assertions.assertEquals(List.of(myBookId01, myBookId02), ascending.getContent().stream().map(BookSummary::id).toList());
+
+        Page<BookSummary> descending = Assertions.assertDoesNotThrow(() -> bookService.findByPrice(
+                null, null, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "price"))
+        ));
+
+        Assertions.assertEquals(2, descending.getTotalElements());
+        Assertions.assertEquals(List.of(myBookId02), descending.getContent().stream().map(BookSummary::id).toList());
+
+        Page<BookSummary> inRange = Assertions.assertDoesNotThrow(() -> bookService.findByPrice(47.85, 50.0, Pageable.ofSize(10)));
+
+        Assertions.assertEquals(List.of(myBookId01), inRange.getContent().stream().map(BookSummary::id).toList());
+    }
+
+    @Test
+    @DisplayName("should reorder books when price changes")
+    @Order(21)
+    void shouldReorderBooksWhenPriceChanges() {
+        BookEntity book = bookRepository.findById(myBookId02).orElseThrow();
+        book.setPrice(9.99);
+        bookRepository.save(book);
+
+        Page<BookSummary> ascending = Assertions.assertDoesNotThrow(() -> bookService.findByPrice(null, 10.0, Pageable.ofSize(10)));
+
+        Assertions.assertEquals(List.of(myBookId02), ascending.getContent().stream().map(BookSummary::id).toList());
+
+        bookRepository.deleteById(myBookId02);
+
+        Assertions.assertEquals(0, bookService.findByPrice(null, 10.0, Pageable.ofSize(10)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("shouldn't return books by inverted price range and throws exception")
+    @Order(22)
+    void shouldNotReturnBooksByInvertedPriceRangeAndThrowException() {
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findByPrice(80.0, 10.0, Pageable.ofSize(10)));
+    }
+
+    @Test
+    @DisplayName("should return books by ids in request order and report missing ids")
+    @Order(23)
+    void shouldReturnBooksByIdsInRequestOrderAndReportMissingIds() {
+        UUID unknownId = UUID.randomUUID();
+
+        BookBatch batch = Assertions.assertDoesNotThrow(() -> bookService.findAllByIds(List.of(myBookId02, unknownId, myBookId01)));
+
+        Assertions.assertEquals(List.of(myBookId02, myBookId01), batch.books().stream().map(BookEntity::getId).toList());
+        Assertions.assertEquals(List.of(unknownId), batch.missing());
+        Assertions.assertEquals(1, batch.books().get(1).getGenres().size());
+    }
+
+    @Test
+    @DisplayName("shouldn't return books by too many ids and throws exception")
+    @Order(24)
+    void shouldNotReturnBooksByTooManyIdsAndThrowException() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(BookService.MAX_BATCH_SIZE + 1).toList();
+
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findAllByIds(ids));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findAllByIds(List.of()));
+    }
+
+    @Test
+    @DisplayName("should serve repeated book lookups and misses from cache")
+    @Order(25)
+    void shouldServeRepeatedBookLookupsAndMissesFromCache() {
+        UUID unknownId = UUID.randomUUID();
+
+        bookService.findById(myBookId01);
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findById(unknownId));
+
+        long hits = bookCache.stats().hitCount();
+
+        Assertions.assertEquals("Book Test 01", bookService.findById(myBookId01).getTitle());
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findById(unknownId));
+        Assertions.assertEquals(hits + 2, bookCache.stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("should invalidate cached book on update and delete")
+    @Order(26)
+    void shouldInvalidateCachedBookOnUpdateAndDelete() {
+        BookEntity book = bookRepository.findById(myBookId01).orElseThrow();
+        Assertions.assertEquals("Book Test 01", bookService.findById(myBookId01).getTitle());
+
+        book.setTitle("Book Test 01 - (Edited)");
+        bookService.update(myBookId01, book);
+
+        Assertions.assertEquals("Book Test 01 - (Edited)", bookService.findById(myBookId01).getTitle());
+
+        bookService.delete(myBookId01);
+
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findById(myBookId01));
+    }
+
+    @Test
+    @DisplayName("should never oversell under concurrent reservations")
+    @Order(27)
+    void shouldNeverOversellUnderConcurrentReservations() throws Exception {
+        int buyers = 300;
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(buyers)) {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < buyers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+
+                    try {
+                        bookService.reserve(myBookId01, 1);
+                        reserved.incrementAndGet();
+                    } catch (BookConflictException exception) {
+                        rejected.incrementAndGet();
+                    }
+
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        BookEntity book = bookRepository.findById(myBookId01).orElseThrow();
+
+        Assertions.assertEquals(10, reserved.get());
+        Assertions.assertEquals(buyers - 10, rejected.get());
+        Assertions.assertEquals(0, book.getStock());
+        Assertions.assertEquals(0, bookService.findById(myBookId01).getStock());
+    }
+
+    @Test
+    @DisplayName("should reject invalid reservations")
+    @Order(28)
+    void shouldRejectInvalidReservations() {
+        Assertions.assertEquals(7, bookService.reserve(myBookId01, 3).stock());
+
+        Assertions.assertThrows(BookConflictException.class, () -> bookService.reserve(myBookId01, 8));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.reserve(myBookId01, 0));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.reserve(UUID.randomUUID(), 1));
+        Assertions.assertEquals(7, bookRepository.findById(myBookId01).orElseThrow().getStock());
+    }
+
+    @Test
+    @DisplayName("should reject update carrying a stale version")
+    @Order(29)
+    void shouldRejectUpdateCarryingAStaleVersion() {
+        BookEntity stale = bookRepository.findById(myBookId01).orElseThrow();
+
+        bookService.reserve(myBookId01, 1);
+
+        stale.setTitle("Book Test 01 - (Edited)");
+
+        Assertions.assertThrows(BookConflictException.class, () -> bookService.update(myBookId01, stale));
+        Assertions.assertEquals("Book Test 01", bookRepository.findById(myBookId01).orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("should patch book columns without touching the rest")
+    @Order(30)
+    void shouldPatchBookColumnsWithoutTouchingTheRest() throws Exception {
+        BookEntity before = bookRepository.findById(myBookId01).orElseThrow();
+        Assertions.assertEquals("Book Test 01", bookService.findById(myBookId01).getTitle());
+
+        bookService.patch(myBookId01, before.getVersion(), objectMapper.readTree("{\"title\": \"Animal Farm\", \"price\": 12.5}"));
+
+        BookEntity after = bookRepository.findById(myBookId01).orElseThrow();
+
+        Assertions.assertEquals("Animal Farm", after.getTitle());
+        Assertions.assertEquals(12.5, after.getPrice());
+        Assertions.assertEquals(before.getDescription(), after.getDescription());
+        Assertions.assertEquals(before.getAuthors(), after.getAuthors());
+        Assertions.assertEquals(before.getGenres(), after.getGenres());
+        Assertions.assertEquals(before.getVersion() + 1, after.getVersion());
+        Assertions.assertEquals("Animal Farm", bookService.findById(myBookId01).getTitle());
+        Assertions.assertEquals(List.of(myBookId01), bookService.findByTitle("animal farm").stream().map(BookEntity::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should replace book authors and genres from patch")
+    @Order(31)
+    void shouldReplaceBookAuthorsAndGenresFromPatch() throws Exception {
+        BookEntity book02 = bookRepository.findById(myBookId02).orElseThrow();
+        UUID rowlingId = book02.getAuthors().iterator().next().getId();
+        UUID romanceId = book02.getGenres().iterator().next().getId();
+
+        bookService.patch(myBookId01, null, objectMapper.readTree(
+                "{\"authors\": [{\"id\": \"" + rowlingId + "\"}], \"genres\": [\"" + romanceId + "\"]}"
+        ));
+
+        BookEntity after = bookService.findById(myBookId01);
+
+        Assertions.assertEquals(Set.of(rowlingId), after.getAuthors().stream().map(AuthorEntity::getId).collect(Collectors.toSet()));
+        Assertions.assertEquals(Set.of(romanceId), after.getGenres().stream().map(GenreEntity::getId).collect(Collectors.toSet()));
+        Assertions.assertEquals("Book Test 01", after.getTitle());
+    }
+
+    @Test
+    @DisplayName("should reject invalid patches")
+    @Order(32)
+    void shouldRejectInvalidPatches() throws Exception {
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.patch(myBookId01, null, objectMapper.readTree("{\"id\": \"" + UUID.randomUUID() + "\"}")));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.patch(myBookId01, null, objectMapper.readTree("{\"title\": null}")));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.patch(myBookId01, null, objectMapper.readTree("{\"price\": \"cheap\"}")));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.patch(myBookId01, null, objectMapper.readTree("{\"authors\": [\"" + UUID.randomUUID() + "\"]}")));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.patch(myBookId01, null, objectMapper.readTree("[]")));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.patch(UUID.randomUUID(), null, objectMapper.readTree("{\"title\": \"Ghost\"}")));
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> bookService.patch(myBookId01, -1L, objectMapper.readTree("{\"title\": \"Stale\"}")));
+        Assertions.assertEquals("Book Test 01", bookRepository.findById(myBookId01).orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("should delete sold-out books older than the given days")
+    @Order(33)
+    void shouldDeleteSoldOutBooksOlderThanTheGivenDays() {
+        Set<UUID> authorIds = Set.copyOf(authorRepository.findAll().stream().map(AuthorEntity::getId).toList());
+        Assertions.assertEquals("Book Test 01", bookService.findById(myBookId01).getTitle());
+
+        jdbcTemplate.update("update tb_book set stock = 0, updated_at = ? where id = ?", Timestamp.from(Instant.now().minus(Duration.ofDays(40))), myBookId01);
+        jdbcTemplate.update("update tb_book set stock = 0 where id = ?", myBookId02);
+
+        Assertions.assertEquals(new BulkDeletion(1), bookService.deleteSoldOut(30));
+
+        Assertions.assertFalse(bookRepository.existsById(myBookId01));
+        Assertions.assertTrue(bookRepository.existsById(myBookId02));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findById(myBookId01));
+        Assertions.assertEquals(List.of(), bookService.findByTitle("book test 01"));
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("select count(*) from tb_book_author where book_id = ?", Integer.class, myBookId01));
+        Assertions.assertEquals(authorIds, Set.copyOf(authorRepository.findAll().stream().map(AuthorEntity::getId).toList()));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.deleteSoldOut(-1));
+    }
+
+    @Test
+    @DisplayName("should release book ordinals of unknown and deleted books")
+    @Order(34)
+    void shouldReleaseBookOrdinalsOfUnknownAndDeletedBooks() {
+        int ordinals = bookOrdinals.size();
+
+        for (int i = 0; i < 100; i++) {
+            facetIndex.remove(UUID.randomUUID());
+            priceIndex.remove(UUID.randomUUID());
+        }
+
+        Assertions.assertEquals(ordinals, bookOrdinals.size());
+
+        bookService.delete(myBookId01);
+
+        Assertions.assertEquals(ordinals - 1, bookOrdinals.size());
+
+        facetIndex.rebuild();
+        priceIndex.rebuild();
+
+        Assertions.assertEquals(bookRepository.count(), bookOrdinals.size());
+        Assertions.assertEquals(List.of(myBookId02), bookService.findByPrice(null, null, Pageable.ofSize(10)).getContent().stream().map(BookSummary::id).toList());
+    }
+
+    @Test
+    @DisplayName("shouldn't return books by isbn with a wrong check digit and throws exception")
+    @Order(35)
+    void shouldNotReturnBooksByIsbnWithWrongCheckDigitAndThrowException() {
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findByIsbn("978-0-306-40615-8"));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findByIsbn("0-306-40615-3"));
+        Assertions.assertThrows(BookServiceException.class, () -> bookService.findByIsbn("654321"));
+    }
+
+    @Test
+    @DisplayName("should publish only a stock event when reserving")
+    @Order(36)
+    void shouldPublishOnlyAStockEventWhenReserving() {
+        Long version = bookRepository.findById(myBookId01).orElseThrow().getVersion();
+        Assertions.assertEquals(10, bookService.findById(myBookId01).getStock());
+
+        applicationEvents.clear();
+        StockReservation reservation = bookService.reserve(myBookId01, 4);
+
+        Assertions.assertEquals(new StockReservation(myBookId01, 6, version + 1), reservation);
+        Assertions.assertEquals(List.of(new StockReservedEvent(myBookId01, 6)), applicationEvents.stream(StockReservedEvent.class).toList());
+        Assertions.assertEquals(0, applicationEvents.stream(EntityChangedEvent.class).count());
+        Assertions.assertEquals(6, bookService.findById(myBookId01).getStock());
+    }
 }
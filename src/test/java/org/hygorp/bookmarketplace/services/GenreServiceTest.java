@@ -1,6 +1,11 @@
 package org.hygorp.bookmarketplace.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hygorp.bookmarketplace.cache.NameSearchCache;
+import org.hygorp.bookmarketplace.cache.ReferenceCache;
 import org.hygorp.bookmarketplace.entities.GenreEntity;
+import org.hygorp.bookmarketplace.records.CursorPage;
+import org.hygorp.bookmarketplace.records.Suggestion;
 import org.hygorp.bookmarketplace.repositories.GenreRepository;
 import org.hygorp.bookmarketplace.services.exceptions.GenreServiceException;
 import org.junit.jupiter.api.*;
@@ -10,6 +15,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -24,6 +30,15 @@ public class GenreServiceTest {
     @Autowired
     private GenreService genreService;
 
+    @Autowired
+    private ReferenceCache referenceCache;
+
+    @Autowired
+    private NameSearchCache<GenreEntity> genreSearchCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private UUID myGenreId01;
     private UUID myGenreId02;
 
@@ -136,4 +151,68 @@ public class GenreServiceTest {
 
         Assertions.assertThrows(GenreServiceException.class, () -> genreService.findById(myGenreId01));
     }
+
+    @Test
+    @DisplayName("should page genres by cursor")
+    @Order(9)
+    void shouldPageGenresByCursor() {
+        CursorPage<GenreEntity> firstPage = Assertions.assertDoesNotThrow(() -> genreService.findAll(null, 1, false));
+
+        Assertions.assertEquals(myGenreId01, firstPage.content().get(0).getId());
+        Assertions.assertNotNull(firstPage.next());
+
+        CursorPage<GenreEntity> secondPage = Assertions.assertDoesNotThrow(() -> genreService.findAll(firstPage.next(), 1, false));
+
+        Assertions.assertEquals(myGenreId02, secondPage.content().get(0).getId());
+        Assertions.assertNull(secondPage.next());
+    }
+
+    @Test
+    @DisplayName("should suggest genres by prefix")
+    @Order(10)
+    void shouldSuggestGenresByPrefix() {
+        List<Suggestion> genres = Assertions.assertDoesNotThrow(() -> genreService.suggest("rom", 10));
+
+        Assertions.assertEquals(List.of(new Suggestion(myGenreId02, "Romance")), genres);
+    }
+
+    @Test
+    @DisplayName("should cache genre and evict it on delete")
+    @Order(11)
+    void shouldCacheGenreAndEvictItOnDelete() {
+        Assertions.assertDoesNotThrow(() -> genreService.findById(myGenreId01));
+
+        Assertions.assertTrue(referenceCache.contains(GenreEntity.class, myGenreId01));
+
+        genreService.delete(myGenreId01);
+
+        Assertions.assertFalse(referenceCache.contains(GenreEntity.class, myGenreId01));
+        Assertions.assertThrows(GenreServiceException.class, () -> genreService.findById(myGenreId01));
+    }
+
+    @Test
+    @DisplayName("should answer repeated name searches from the search cache")
+    @Order(12)
+    void shouldAnswerRepeatedNameSearchesFromTheSearchCache() {
+        Assertions.assertEquals(1, genreService.findByName("fic").size());
+
+        long hits = genreSearchCache.stats().hitCount();
+        Set<GenreEntity> genres = genreService.findByName("  FIC ");
+
+        Assertions.assertEquals(1, genres.size());
+        Assertions.assertEquals(myGenreId01, genres.iterator().next().getId());
+        Assertions.assertEquals(hits + 1, genreSearchCache.stats().hitCount());
+        Assertions.assertTrue(meterRegistry.get("cache.gets").tag("cache", "name-search.genres").tag("result", "hit").functionCounter().count() > 0);
+    }
+
+    @Test
+    @DisplayName("should invalidate name searches on genre change")
+    @Order(13)
+    void shouldInvalidateNameSearchesOnGenreChange() {
+        Assertions.assertEquals(1, genreService.findByName("fic").size());
+
+        genreService.save(new GenreEntity("Science Fiction", "https://image.com/science-fiction.jpg"));
+
+        Assertions.assertEquals(2, genreService.findByName("fic").size());
+    }
 }
@@ -1,6 +1,7 @@
 package org.hygorp.bookmarketplace.services;
 
 import org.hygorp.bookmarketplace.entities.PublisherEntity;
+import org.hygorp.bookmarketplace.records.Suggestion;
 import org.hygorp.bookmarketplace.repositories.PublisherRepository;
 import org.hygorp.bookmarketplace.services.exceptions.PublisherServiceException;
 import org.junit.jupiter.api.*;
@@ -10,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -126,4 +128,15 @@ public class PublisherServiceTest {
 
         Assertions.assertThrows(PublisherServiceException.class, () -> publisherService.findById(myPublisherId01));
     }
+
+    @Test
+    @DisplayName("should suggest publishers by prefix up to the limit")
+    @Order(9)
+    void shouldSuggestPublishersByPrefixUpToTheLimit() {
+        List<Suggestion> publishers = Assertions.assertDoesNotThrow(() -> publisherService.suggest("publisher test", 1));
+
+        Assertions.assertEquals(1, publishers.size());
+        Assertions.assertEquals("Publisher Test 01", publishers.get(0).name());
+        Assertions.assertThrows(PublisherServiceException.class, () -> publisherService.suggest("publisher", 0));
+    }
 }
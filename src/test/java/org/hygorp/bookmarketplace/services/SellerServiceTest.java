@@ -1,10 +1,22 @@
 package org.hygorp.bookmarketplace.services;
 
 import org.hygorp.bookmarketplace.entities.AddressEntity;
+import org.hygorp.bookmarketplace.entities.BookEntity;
 import org.hygorp.bookmarketplace.entities.SellerEntity;
 import org.hygorp.bookmarketplace.entities.UserEntity;
+import org.hygorp.bookmarketplace.enums.Condition;
+import org.hygorp.bookmarketplace.enums.CoverType;
+import org.hygorp.bookmarketplace.enums.Language;
+import org.hygorp.bookmarketplace.events.BooksChangedEvent;
+import org.hygorp.bookmarketplace.events.BooksDeletedEvent;
+import org.hygorp.bookmarketplace.events.EntityChangedEvent;
+import org.hygorp.bookmarketplace.records.BookSummary;
+import org.hygorp.bookmarketplace.records.BulkDeletion;
 import org.hygorp.bookmarketplace.records.Seller;
+import org.hygorp.bookmarketplace.repositories.AddressRepository;
+import org.hygorp.bookmarketplace.repositories.BookRepository;
 import org.hygorp.bookmarketplace.repositories.SellerRepository;
+import org.hygorp.bookmarketplace.repositories.UserRepository;
 import org.hygorp.bookmarketplace.services.exceptions.SellerServiceException;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,22 +24,42 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 @SpringBootTest
 @ActiveProfiles("test")
+@RecordApplicationEvents
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @DisplayName("SellerServiceTests")
 public class SellerServiceTest {
     @Autowired
     private SellerRepository sellerRepository;
 
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     @Autowired
     private SellerService sellerService;
 
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
     private UUID mySellerId01;
     private UUID mySellerId02;
 
@@ -82,6 +114,7 @@ public class SellerServiceTest {
 
     @AfterEach
     void afterEach() {
+        bookRepository.deleteAll();
         sellerRepository.deleteAll();
     }
 
@@ -189,4 +222,141 @@ public class SellerServiceTest {
 
         Assertions.assertThrows(SellerServiceException.class, () -> sellerService.findById(mySellerId01));
     }
+
+    @Test
+    @DisplayName("should return sellers with book aggregates")
+    @Order(9)
+    void shouldReturnSellersWithBookAggregates() {
+        saveBook("Seller Book 01", 25.90, 3);
+        saveBook("Seller Book 02", 12.50, 0);
+
+        Page<Seller> sellers = Assertions.assertDoesNotThrow(() -> sellerService.findAll(Pageable.ofSize(10)));
+
+        Seller seller01 = sellers.getContent().stream().filter(seller -> seller.id().equals(mySellerId01)).findFirst().orElseThrow();
+        Seller seller02 = sellers.getContent().stream().filter(seller -> seller.id().equals(mySellerId02)).findFirst().orElseThrow();
+
+        Assertions.assertEquals(2, seller01.bookCount());
+        Assertions.assertEquals(1, seller01.inStockCount());
+        Assertions.assertEquals(12.50, seller01.minPrice());
+        Assertions.assertEquals("Sao Paulo", seller01.address().getCity());
+        Assertions.assertEquals(0, seller02.bookCount());
+        Assertions.assertNull(seller02.minPrice());
+    }
+
+    @Test
+    @DisplayName("should return seller books page by page")
+    @Order(10)
+    void shouldReturnSellerBooksPageByPage() {
+        saveBook("Seller Book 01", 25.90, 3);
+        saveBook("Seller Book 02", 12.50, 0);
+
+        Page<BookSummary> books = Assertions.assertDoesNotThrow(() -> sellerService.findBooks(mySellerId01, Pageable.ofSize(1)));
+
+        Assertions.assertEquals(2, books.getTotalElements());
+        Assertions.assertEquals(1, books.getContent().size());
+        Assertions.assertEquals("Seller Test 01", books.getContent().get(0).seller());
+        Assertions.assertEquals(List.of(), sellerService.findBooks(mySellerId02, Pageable.ofSize(10)).getContent());
+        Assertions.assertThrows(SellerServiceException.class, () -> sellerService.findBooks(UUID.randomUUID(), Pageable.ofSize(10)));
+    }
+
+    @Test
+    @DisplayName("should delete all seller books without touching other listings")
+    @Order(11)
+    void shouldDeleteAllSellerBooksWithoutTouchingOtherListings() {
+        saveBook("Seller Book 01", 25.90, 3);
+        saveBook("Seller Book 02", 12.50, 0);
+        UUID otherBookId = bookRepository.save(new BookEntity(
+                "Other Book",
+                "Description of Other Book",
+                LocalDate.parse("1970-01-01"),
+                "654321",
+                "https://image.com/other-book.jpg",
+                10.0,
+                1,
+                Condition.NEW,
+                CoverType.SOFTCOVER,
+                Language.PT_BR
+        )).getId();
+
+        Assertions.assertEquals(2, bookService.findByTitle("seller book").size());
+        Assertions.assertEquals(new BulkDeletion(2), sellerService.deleteBooks(mySellerId01));
+
+        Assertions.assertEquals(List.of(), sellerService.findBooks(mySellerId01, Pageable.ofSize(10)).getContent());
+        Assertions.assertEquals(List.of(), bookService.findByTitle("seller book"));
+        Assertions.assertTrue(bookRepository.existsById(otherBookId));
+        Assertions.assertTrue(sellerRepository.existsById(mySellerId01));
+        Assertions.assertEquals(new BulkDeletion(0), sellerService.deleteBooks(mySellerId02));
+        Assertions.assertThrows(SellerServiceException.class, () -> sellerService.deleteBooks(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("should delete seller together with its books")
+    @Order(12)
+    void shouldDeleteSellerTogetherWithItsBooks() {
+        saveBook("Seller Book 01", 25.90, 3);
+        saveBook("Seller Book 02", 12.50, 0);
+
+        SellerEntity seller = sellerRepository.findById(mySellerId01).orElseThrow();
+
+        applicationEvents.clear();
+        sellerService.delete(mySellerId01);
+
+        Assertions.assertFalse(sellerRepository.existsById(mySellerId01));
+        Assertions.assertFalse(addressRepository.existsById(seller.getAddress().getId()));
+        Assertions.assertFalse(userRepository.existsById(seller.getCredentials().getId()));
+        Assertions.assertEquals(0, bookRepository.count());
+        Assertions.assertTrue(applicationEvents.stream(EntityChangedEvent.class)
+                .anyMatch(event -> event.entity() instanceof SellerEntity deleted && deleted.getId().equals(mySellerId01)));
+        Assertions.assertEquals(List.of(), bookService.findByTitle("seller book"));
+    }
+
+    @Test
+    @DisplayName("should refresh cached books when their seller changes")
+    @Order(13)
+    void shouldRefreshCachedBooksWhenTheirSellerChanges() {
+        UUID bookId = saveBook("Seller Book 01", 25.90, 3);
+        Assertions.assertEquals("Seller Test 01", bookService.findById(bookId).getSeller().getName());
+
+        SellerEntity seller = sellerService.findById(mySellerId01);
+        seller.setName("Seller Test 01 - (Edited)");
+        sellerService.update(mySellerId01, seller);
+
+        Assertions.assertEquals("Seller Test 01 - (Edited)", bookService.findById(bookId).getSeller().getName());
+    }
+
+    @Test
+    @DisplayName("should publish one change event for deleted seller books")
+    @Order(14)
+    void shouldPublishOneChangeEventForDeletedSellerBooks() {
+        saveBook("Seller Book 01", 25.90, 3);
+        saveBook("Seller Book 02", 12.50, 0);
+        saveBook("Seller Book 03", 9.90, 1);
+
+        applicationEvents.clear();
+        sellerService.deleteBooks(mySellerId01);
+
+        List<BooksDeletedEvent> deletions = applicationEvents.stream(BooksDeletedEvent.class).toList();
+
+        Assertions.assertEquals(List.of(new BooksDeletedEvent(mySellerId01, null)), deletions);
+        Assertions.assertEquals(0, applicationEvents.stream(BooksChangedEvent.class).count());
+        Assertions.assertEquals(List.of(), bookService.findByTitle("seller book"));
+    }
+
+    private UUID saveBook(String title, Double price, Integer stock) {
+        BookEntity book = new BookEntity(
+                title,
+                "Description of " + title,
+                LocalDate.parse("1970-01-01"),
+                "123456",
+                "https://image.com/seller-book.jpg",
+                price,
+                stock,
+                Condition.NEW,
+                CoverType.SOFTCOVER,
+                Language.PT_BR
+        );
+        book.setSeller(sellerRepository.findById(mySellerId01).orElseThrow());
+
+        return bookRepository.save(book).getId();
+    }
 }
@@ -0,0 +1,109 @@
+package org.hygorp.bookmarketplace.services;
+
+import org.hygorp.bookmarketplace.entities.ClientEntity;
+import org.hygorp.bookmarketplace.entities.UserEntity;
+import org.hygorp.bookmarketplace.repositories.ClientRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("UserServiceTests")
+public class UserServiceTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private UUID myClientId;
+
+    @BeforeEach
+    void beforeEach() {
+        clientRepository.deleteAll();
+
+        myClientId = clientRepository.save(new ClientEntity(
+                "Joseph First",
+                "12345678910",
+                "joseph@mail.com",
+                "559854541258",
+                new UserEntity(
+                        "Joseph",
+                        "123",
+                        "client"
+                )
+        )).getId();
+    }
+
+    @AfterEach
+    void afterEach() {
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should load user by username ignoring case")
+    @Order(1)
+    void shouldLoadUserByUsernameIgnoringCase() {
+        UserDetails user = Assertions.assertDoesNotThrow(() -> userService.loadUserByUsername("JOSEPH"));
+
+        Assertions.assertEquals("Joseph", user.getUsername());
+        Assertions.assertEquals("123", user.getPassword());
+        Assertions.assertEquals(List.of(new SimpleGrantedAuthority("ROLE_CLIENT")), List.copyOf(user.getAuthorities()));
+    }
+
+    @Test
+    @DisplayName("should not load unknown user")
+    @Order(2)
+    void shouldNotLoadUnknownUser() {
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("hannah"));
+    }
+
+    @Test
+    @DisplayName("should serve cached principal copies")
+    @Order(3)
+    void shouldServeCachedPrincipalCopies() {
+        UserDetails first = userService.loadUserByUsername("joseph");
+        ((CredentialsContainer) first).eraseCredentials();
+
+        long hits = userService.stats().hitCount();
+        UserDetails second = userService.loadUserByUsername("Joseph");
+
+        Assertions.assertEquals(hits + 1, userService.stats().hitCount());
+        Assertions.assertEquals("123", second.getPassword());
+    }
+
+    @Test
+    @DisplayName("should evict principal when client credentials change")
+    @Order(4)
+    void shouldEvictPrincipalWhenClientCredentialsChange() {
+        Assertions.assertEquals("123", userService.loadUserByUsername("joseph").getPassword());
+
+        clientService.update(myClientId, new ClientEntity(
+                "Joseph First",
+                "12345678910",
+                "joseph@mail.com",
+                "559854541258",
+                new UserEntity(
+                        "joseph.first",
+                        "456",
+                        "client"
+                )
+        ));
+
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("joseph"));
+        Assertions.assertEquals("456", userService.loadUserByUsername("Joseph.First").getPassword());
+    }
+}